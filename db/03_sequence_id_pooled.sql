@@ -0,0 +1,28 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 主键序列改造脚本
+-- 版本: 1.1
+-- 描述: 实体主键由 IDENTITY 改为序列 + pooled 优化器（allocationSize = 50），
+--       以便 Hibernate 对 INSERT 进行 JDBC 批量写入。
+--       BIGSERIAL 自带的序列步长需与 allocationSize 保持一致，
+--       否则应用启动时 Hibernate 会因步长不匹配而报错。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+-- 说明：
+-- 1. pooled 优化器把序列值视为一段ID的上界，步长改为50后，
+--    下一次 nextval 返回 当前值+50，应用使用 (当前值+1 ~ 当前值+50)，不会与已有ID冲突。
+-- 2. 列上的 DEFAULT nextval(...) 保留，直接用SQL插入的数据仍可自动取号（会跳过49个号，不影响唯一性）。
+-- 3. 执行本脚本前请先停止应用。
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE buildings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_buildings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rooms_id_seq INCREMENT BY 50;
+ALTER SEQUENCE utility_readings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE estimated_bills_id_seq INCREMENT BY 50;
+
+-- 校验：increment_by 均应为 50
+SELECT sequencename, increment_by, last_value
+FROM pg_sequences
+WHERE sequencename IN ('users_id_seq', 'buildings_id_seq', 'user_buildings_id_seq',
+                       'rooms_id_seq', 'utility_readings_id_seq', 'estimated_bills_id_seq');
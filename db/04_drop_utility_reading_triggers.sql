@@ -0,0 +1,35 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 移除抄表记录触发器
+-- 版本: 1.2
+-- 描述: 上次读数和本期用量改由应用按批计算（ReadingUsageCalculator），
+--       不再依赖 utility_readings 上的触发器。
+--       触发器未包含在 02_create_tables.sql 中，各环境名称可能不同，
+--       因此按触发器函数识别：只删除函数体中给 NEW.*_previous_reading 赋值的触发器，
+--       审计、updated_at 等其他触发器保持不变。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+DO $$
+DECLARE
+    t RECORD;
+BEGIN
+    FOR t IN
+        SELECT tg.tgname
+        FROM pg_trigger tg
+        JOIN pg_proc p ON p.oid = tg.tgfoid
+        WHERE tg.tgrelid = 'utility_readings'::regclass
+          AND NOT tg.tgisinternal
+          AND p.prosrc ~* 'NEW\.[a-z_]*_previous_reading\s*:?='
+    LOOP
+        EXECUTE format('DROP TRIGGER %I ON utility_readings', t.tgname);
+        RAISE NOTICE '已删除触发器: %', t.tgname;
+    END LOOP;
+END $$;
+
+-- 校验：应无返回行
+SELECT tg.tgname
+FROM pg_trigger tg
+JOIN pg_proc p ON p.oid = tg.tgfoid
+WHERE tg.tgrelid = 'utility_readings'::regclass
+  AND NOT tg.tgisinternal
+  AND p.prosrc ~* 'NEW\.[a-z_]*_previous_reading\s*:?=';
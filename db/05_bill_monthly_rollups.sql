@@ -0,0 +1,56 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 账单月度汇总表
+-- 版本: 1.3
+-- 描述: 新增 bill_monthly_rollups（月份 × 楼宇 × 账单状态），
+--       由应用在每次账单写入时于同一事务内刷新（BillRollupService），
+--       看板直接读取汇总表，不再对 estimated_bills 做聚合扫描。
+--       本脚本建表后按现有账单回填一次。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+DROP TABLE IF EXISTS bill_monthly_rollups CASCADE;
+CREATE TABLE bill_monthly_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    bill_month VARCHAR(7) NOT NULL,
+    building_id BIGINT NOT NULL,
+    bill_status VARCHAR(20) NOT NULL,
+    bill_count BIGINT NOT NULL DEFAULT 0,
+    rent DECIMAL(14,2) DEFAULT 0.00,
+    deposit DECIMAL(14,2) DEFAULT 0.00,
+    electricity_amount DECIMAL(14,2) DEFAULT 0.00,
+    water_amount DECIMAL(14,2) DEFAULT 0.00,
+    hot_water_amount DECIMAL(14,2) DEFAULT 0.00,
+    total_amount DECIMAL(14,2) DEFAULT 0.00,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_bill_rollup_month_building_status UNIQUE (bill_month, building_id, bill_status),
+    FOREIGN KEY (building_id) REFERENCES buildings(id) ON DELETE CASCADE
+);
+
+-- 与实体的 allocationSize 保持一致（见 03_sequence_id_pooled.sql）
+ALTER SEQUENCE bill_monthly_rollups_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_bill_monthly_rollups_building_id ON bill_monthly_rollups(building_id);
+
+COMMENT ON TABLE bill_monthly_rollups IS '账单月度汇总表';
+COMMENT ON COLUMN bill_monthly_rollups.bill_month IS '账单年月（YYYY-MM）';
+COMMENT ON COLUMN bill_monthly_rollups.building_id IS '楼宇ID';
+COMMENT ON COLUMN bill_monthly_rollups.bill_status IS '账单状态';
+COMMENT ON COLUMN bill_monthly_rollups.bill_count IS '账单数量';
+COMMENT ON COLUMN bill_monthly_rollups.rent IS '房租合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.deposit IS '押金合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.electricity_amount IS '电费合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.water_amount IS '水费合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.hot_water_amount IS '热水费合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.total_amount IS '总金额合计（元）';
+COMMENT ON COLUMN bill_monthly_rollups.updated_at IS '更新时间';
+
+-- 按现有账单回填
+INSERT INTO bill_monthly_rollups (bill_month, building_id, bill_status, bill_count, rent, deposit,
+                                  electricity_amount, water_amount, hot_water_amount, total_amount)
+SELECT e.bill_month, r.building_id, COALESCE(e.bill_status, 'GENERATED'), COUNT(*),
+       COALESCE(SUM(e.rent), 0), COALESCE(SUM(e.deposit), 0), COALESCE(SUM(e.electricity_amount), 0),
+       COALESCE(SUM(e.water_amount), 0), COALESCE(SUM(e.hot_water_amount), 0), COALESCE(SUM(e.total_amount), 0)
+FROM estimated_bills e
+JOIN rooms r ON r.id = e.room_id
+GROUP BY e.bill_month, r.building_id, COALESCE(e.bill_status, 'GENERATED');
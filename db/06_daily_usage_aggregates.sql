@@ -0,0 +1,51 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 每日用量汇总表
+-- 版本: 1.4
+-- 描述: 新增 daily_usage_aggregates（房间 × 日期，仅统计已确认的抄表记录），
+--       由应用定时刷新（UsageAggregationService），
+--       房间/楼宇用量统计按日期范围对本表求和，不再扫描 utility_readings。
+--       本脚本建表后按现有抄表记录回填一次。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+DROP TABLE IF EXISTS daily_usage_aggregates CASCADE;
+CREATE TABLE daily_usage_aggregates (
+    id BIGSERIAL PRIMARY KEY,
+    room_id BIGINT NOT NULL,
+    building_id BIGINT NOT NULL,
+    usage_date DATE NOT NULL,
+    electricity_usage DECIMAL(12,2) DEFAULT 0.00,
+    water_usage DECIMAL(12,2) DEFAULT 0.00,
+    hot_water_usage DECIMAL(12,2) DEFAULT 0.00,
+    reading_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_daily_usage_room_date UNIQUE (room_id, usage_date),
+    FOREIGN KEY (room_id) REFERENCES rooms(id) ON DELETE CASCADE
+);
+
+-- 与实体的 allocationSize 保持一致（见 03_sequence_id_pooled.sql）
+ALTER SEQUENCE daily_usage_aggregates_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_daily_usage_building_date ON daily_usage_aggregates(building_id, usage_date);
+
+COMMENT ON TABLE daily_usage_aggregates IS '房间每日用量汇总表';
+COMMENT ON COLUMN daily_usage_aggregates.room_id IS '房间ID';
+COMMENT ON COLUMN daily_usage_aggregates.building_id IS '楼宇ID（冗余，楼宇统计无需关联房间表）';
+COMMENT ON COLUMN daily_usage_aggregates.usage_date IS '用量日期';
+COMMENT ON COLUMN daily_usage_aggregates.electricity_usage IS '用电量（度）';
+COMMENT ON COLUMN daily_usage_aggregates.water_usage IS '用水量（吨）';
+COMMENT ON COLUMN daily_usage_aggregates.hot_water_usage IS '热水用量（吨）';
+COMMENT ON COLUMN daily_usage_aggregates.reading_count IS '已确认抄表记录数';
+COMMENT ON COLUMN daily_usage_aggregates.updated_at IS '更新时间';
+
+-- 按现有已确认抄表记录回填
+INSERT INTO daily_usage_aggregates (room_id, building_id, usage_date, electricity_usage, water_usage,
+                                    hot_water_usage, reading_count)
+SELECT ur.room_id, r.building_id, ur.reading_date,
+       COALESCE(SUM(ur.electricity_usage), 0), COALESCE(SUM(ur.water_usage), 0),
+       COALESCE(SUM(ur.hot_water_usage), 0), COUNT(*)
+FROM utility_readings ur
+JOIN rooms r ON r.id = ur.room_id
+WHERE ur.reading_status = 'CONFIRMED'
+GROUP BY ur.room_id, r.building_id, ur.reading_date;
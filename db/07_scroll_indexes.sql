@@ -0,0 +1,14 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 游标分页索引
+-- 版本: 1.5
+-- 描述: 与游标分页的排序键一致的复合索引：
+--       账单按 bill_month DESC, room_id ASC 排序，索引列顺序和方向与之相同，可直接按索引顺序读取；
+--       抄表记录按 (reading_date, reading_time, id) 全部倒序，普通升序索引反向扫描即可。
+--       此前 ddl-auto 可能已按实体旧定义建过升序的 idx_bill_month_room，这里先删除再重建。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+DROP INDEX IF EXISTS idx_bill_month_room;
+CREATE INDEX idx_bill_month_room ON estimated_bills(bill_month DESC, room_id);
+
+CREATE INDEX IF NOT EXISTS idx_reading_date_time_id ON utility_readings(reading_date, reading_time, id);
@@ -0,0 +1,10 @@
+-- =====================================================
+-- 房屋租赁管理系统 - 账单乐观锁
+-- 版本: 1.6
+-- 描述: estimated_bills 新增 version 列（实体 @Version），
+--       抄表变更触发的后台重算与并发的状态变更、编辑冲突时由后提交的一方失败并重试，
+--       不再用旧数据覆盖已发送/已支付的状态。现有账单从 0 开始计数。
+-- PostgreSQL 16 兼容版本
+-- =====================================================
+
+ALTER TABLE estimated_bills ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
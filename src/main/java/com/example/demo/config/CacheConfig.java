@@ -0,0 +1,68 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存配置类
+ * 使用Caffeine替代默认的ConcurrentMapCache，为每个缓存设置容量上限、过期时间和淘汰策略，
+ * 并开启统计，由Actuator自动发布 cache.gets / cache.evictions / cache.size 等指标
+ */
+@Configuration
+public class CacheConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheConfig.class);
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.cache")
+    public CacheSpecProperties cacheSpecProperties() {
+        return new CacheSpecProperties();
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
+        // 未单独配置的缓存使用默认规格
+        cacheManager.setCacheSpecification(properties.getDefaultSpec());
+
+        // 启动时注册所有已配置的缓存，保证指标在启动时即被绑定
+        properties.getSpecs().forEach((name, spec) -> {
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).build());
+            log.info("注册缓存: {} -> {}", name, spec);
+        });
+
+        return cacheManager;
+    }
+
+    /**
+     * 缓存规格配置（CaffeineSpec格式，如 maximumSize=1000,expireAfterWrite=10m,recordStats）
+     */
+    public static class CacheSpecProperties {
+
+        /**
+         * 默认缓存规格
+         */
+        private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+
+        /**
+         * 按缓存名称配置的规格
+         */
+        private Map<String, String> specs = new LinkedHashMap<>();
+
+        public String getDefaultSpec() { return defaultSpec; }
+        public void setDefaultSpec(String defaultSpec) { this.defaultSpec = defaultSpec; }
+
+        public Map<String, String> getSpecs() { return specs; }
+        public void setSpecs(Map<String, String> specs) { this.specs = specs; }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 数据源配置类
+ *
+ * 开启 app.datasource.replica.enabled 时配置读写分离：主库沿用 spring.datasource 配置，
+ * 从库使用 app.datasource.replica 配置，两者各自一个连接池，见 {@link ReadWriteRoutingDataSource}。
+ * 开启 app.datasource.limiter.enabled（默认跟随 spring.threads.virtual.enabled）时，
+ * 在每个连接池前加一层信号量限流，见 {@link ConnectionLimitingDataSource}。
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    /**
+     * 连接池未配置大小时的默认值（与 Hikari 默认值一致）
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+    public static BeanPostProcessor connectionLimiterPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    // 许可数与该连接池大小一致，等待超时与连接池获取连接超时一致
+                    int permits = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+                    long acquireTimeoutMs = hikari.getConnectionTimeout();
+                    log.info("数据源 {} 启用连接限流，许可数: {}，等待超时: {} ms", beanName, permits, acquireTimeoutMs);
+                    return new ConnectionLimitingDataSource(hikari, permits, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 限流指标：可用许可数、排队线程数，按数据源 Bean 名称区分
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.limiter.enabled", havingValue = "true")
+    public MeterBinder connectionLimiterMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (!(dataSource instanceof ConnectionLimitingDataSource limiter)) {
+                return;
+            }
+            Gauge.builder("datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("数据库连接限流剩余许可数")
+                    .tag("name", name)
+                    .register(registry);
+            Gauge.builder("datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                    .description("等待数据库连接许可的线程数")
+                    .tag("name", name)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * 读写分离：{@link ReplicaRead} 方法的只读事务走从库，其余走主库
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    static class ReadWriteSplittingConfig {
+
+        /**
+         * 主库连接池，连接参数取 spring.datasource.*，连接池参数取 spring.datasource.hikari.*
+         */
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            dataSource.setPoolName("primary");
+            return dataSource;
+        }
+
+        /**
+         * 从库连接池，连接参数和连接池参数都取 app.datasource.replica.*
+         */
+        @Bean
+        @ConfigurationProperties("app.datasource.replica")
+        public HikariDataSource replicaDataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica");
+            dataSource.setReadOnly(true);
+            return dataSource;
+        }
+
+        /**
+         * 在 {@link ReplicaRead} 方法的事务开启前设置从库标记
+         */
+        @Bean
+        public ReplicaReadAspect replicaReadAspect() {
+            return new ReplicaReadAspect();
+        }
+
+        /**
+         * 应用使用的数据源：延迟到第一条SQL执行时才取真实连接，此时事务的只读标记已经设置，
+         * 路由数据源据此选择主库或从库
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+            routingDataSource.setTargetDataSources(Map.of(
+                    ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                    ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+            routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+            routingDataSource.afterPropertiesSet();
+            log.info("已启用读写分离数据源：@ReplicaRead 只读事务路由到从库");
+            return new LazyConnectionDataSourceProxy(routingDataSource);
+        }
+    }
+}
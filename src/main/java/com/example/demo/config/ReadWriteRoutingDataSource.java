@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 由 {@link ReplicaRead} 方法发起的只读事务，连接取自从库；其余（写事务、无事务、普通只读事务）取自主库。
+ * 事务管理器开启事务时尚未设置只读标记，需要外层包一层 LazyConnectionDataSourceProxy，
+ * 把取真实连接推迟到第一条SQL执行时再做路由。
+ * 从库方法在写事务内被调用时加入外层事务，仍走主库，不会读到从库的复制延迟。
+ * 路由以每个事务自己的 EntityManager 为前提，需关闭 spring.jpa.open-in-view。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 当前线程正在执行 {@link ReplicaRead} 方法，由 {@link ReplicaReadAspect} 设置
+     */
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    static void setReplicaRead(boolean replicaRead) {
+        if (replicaRead) {
+            REPLICA_READ.set(Boolean.TRUE);
+        } else {
+            REPLICA_READ.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // 同时要求只读事务：从库方法内开启的写事务（REQUIRES_NEW）仍走主库
+        return isReplicaRead() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 从库只读查询
+ *
+ * 等同于 @Transactional(readOnly = true)，开启读写分离时该方法发起的只读事务走从库。
+ * 只用于可以容忍复制延迟、结果不进缓存的重查询（报表、统计、导出、分页查询）；
+ * 带 @Cacheable 的方法和内存索引构建保持普通只读事务，走主库，避免把从库的旧数据缓存下来。
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 为 {@link ReplicaRead} 方法标记从库路由
+ *
+ * 优先级高于事务拦截器，在事务开启前设置标记、事务结束后清除。
+ * 调用时已在事务中的（被其他事务方法调用）不设置标记，沿用外层事务的连接。
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.example.demo.config.ReplicaRead) || @within(com.example.demo.config.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive() || ReadWriteRoutingDataSource.isReplicaRead()) {
+            return joinPoint.proceed();
+        }
+        ReadWriteRoutingDataSource.setReplicaRead(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.setReplicaRead(false);
+        }
+    }
+}
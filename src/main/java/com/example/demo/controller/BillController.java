@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchBillGenerationResult;
 import com.example.demo.dto.BillDto;
+import com.example.demo.dto.CursorPage;
 import com.example.demo.entity.Bill;
 import com.example.demo.service.BillService;
 import com.example.demo.util.ApiResponse;
@@ -8,11 +10,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -24,6 +30,13 @@ public class BillController {
 
     private static final Logger log = LoggerFactory.getLogger(BillController.class);
 
+    private static final MediaType CSV_MEDIA_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    /**
+     * 游标分页每页条数上限
+     */
+    private static final int MAX_SCROLL_SIZE = 200;
+
     @Autowired
     private BillService billService;
 
@@ -59,6 +72,45 @@ public class BillController {
         }
     }
 
+    /**
+     * 导出账单CSV（流式输出，筛选条件与分页查询一致）
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) String billMonth,
+            @RequestParam(required = false) Bill.BillStatus billStatus) {
+        StreamingResponseBody body = outputStream -> billService.exportBillsCsv(roomId, billMonth, billStatus, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bills.csv")
+                .contentType(CSV_MEDIA_TYPE)
+                .body(body);
+    }
+
+    /**
+     * 游标分页查询账单（移动端滚动加载）
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<BillDto>>> scrollBills(
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) String billMonth,
+            @RequestParam(required = false) Bill.BillStatus billStatus,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            if (size < 1 || size > MAX_SCROLL_SIZE) {
+                throw new RuntimeException("每页条数应在 1 到 " + MAX_SCROLL_SIZE + " 之间");
+            }
+            CursorPage<BillDto> result = billService.scrollBills(roomId, billMonth, billStatus, cursor, size, includeTotal);
+            log.info("游标分页查询账单成功，本页: {}, 是否还有更多: {}", result.getItems().size(), result.isHasMore());
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("游标分页查询账单失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 根据ID获取账单详情
      */
@@ -94,6 +146,26 @@ public class BillController {
         }
     }
 
+    /**
+     * 批量生成账单（为所有已出租房间生成指定月份的账单）
+     */
+    @PostMapping("/generate-batch")
+    public ResponseEntity<ApiResponse<BatchBillGenerationResult>> generateBillsBatch(
+            @RequestParam String billMonth) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Long userId = getUserIdFromAuth(auth);
+            BatchBillGenerationResult result = billService.generateBillsForMonth(billMonth, userId);
+
+            log.info("批量生成账单成功，账单月份: {}, 生成: {}, 跳过: {}, 失败: {}",
+                    billMonth, result.getCreatedCount(), result.getSkippedCount(), result.getFailedCount());
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("批量生成账单失败，账单月份: {}", billMonth, e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 更新账单
      */
@@ -0,0 +1,83 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.MonthlyRevenueRollupDto;
+import com.example.demo.dto.UtilityMarginDto;
+import com.example.demo.service.BillAnalyticsService;
+import com.example.demo.service.BillRollupService;
+import com.example.demo.util.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 看板Controller
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardController.class);
+
+    @Autowired
+    private BillRollupService billRollupService;
+
+    @Autowired
+    private BillAnalyticsService billAnalyticsService;
+
+    /**
+     * 查询月度营收汇总（按月份、楼宇、账单状态，读取汇总表）
+     */
+    @GetMapping("/monthly-revenue")
+    public ResponseEntity<ApiResponse<List<MonthlyRevenueRollupDto>>> getMonthlyRevenue(
+            @RequestParam(required = false) String fromMonth,
+            @RequestParam(required = false) String toMonth,
+            @RequestParam(required = false) Long buildingId) {
+        try {
+            List<MonthlyRevenueRollupDto> rollups = billRollupService.getMonthlyRevenue(fromMonth, toMonth, buildingId);
+            return ResponseEntity.ok(ApiResponse.success(rollups));
+        } catch (Exception e) {
+            log.error("查询月度营收汇总失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 查询指定月份各楼宇的水电收入、成本和利润
+     */
+    @GetMapping("/utility-margins")
+    public ResponseEntity<ApiResponse<List<UtilityMarginDto>>> getUtilityMargins(
+            @RequestParam String billMonth,
+            @RequestParam(required = false) Long buildingId) {
+        try {
+            List<UtilityMarginDto> margins = billAnalyticsService.getUtilityMargins(billMonth);
+            if (buildingId != null) {
+                margins = margins.stream()
+                        .filter(margin -> buildingId.equals(margin.getBuildingId()))
+                        .collect(Collectors.toList());
+            }
+            return ResponseEntity.ok(ApiResponse.success(margins));
+        } catch (Exception e) {
+            log.error("查询水电利润失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 根据账单表全量重建月度营收汇总
+     */
+    @PostMapping("/monthly-revenue/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildMonthlyRevenue() {
+        try {
+            int rows = billRollupService.rebuildAll();
+            return ResponseEntity.ok(ApiResponse.success("月度营收汇总重建完成", rows));
+        } catch (Exception e) {
+            log.error("重建月度营收汇总失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
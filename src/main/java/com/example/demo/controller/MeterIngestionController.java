@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.MeterIngestionStats;
+import com.example.demo.dto.MeterPushResult;
+import com.example.demo.dto.MeterReadingPush;
+import com.example.demo.service.MeterIngestionService;
+import com.example.demo.util.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 智能表读数采集控制器
+ */
+@RestController
+@RequestMapping("/api/meter-readings")
+public class MeterIngestionController {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterIngestionController.class);
+
+    /**
+     * 队列已满时建议网关的重试间隔（秒）
+     */
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    @Autowired
+    private MeterIngestionService meterIngestionService;
+
+    /**
+     * 接收网关推送的读数（异步写入，队列满时返回429）
+     */
+    @PostMapping("/push")
+    public ResponseEntity<ApiResponse<MeterPushResult>> push(@RequestBody List<MeterReadingPush> pushes) {
+        try {
+            MeterPushResult result = meterIngestionService.submit(pushes);
+            if (result.getRejectedCount() > 0) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .body(new ApiResponse<>(429, "采集队列已满，请稍后重试未接收的读数", result));
+            }
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("接收智能表读数失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取采集管道运行状态
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<MeterIngestionStats>> getStats() {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(meterIngestionService.getStats()));
+        } catch (Exception e) {
+            log.error("获取采集管道状态失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
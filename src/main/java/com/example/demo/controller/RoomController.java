@@ -14,6 +14,7 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -113,6 +114,34 @@ public class RoomController {
         }
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "分页获取房间列表", description = "分页获取所有房间或指定楼宇的房间列表")
+    public ResponseEntity<ApiResponse<List<RoomDto>>> getRoomsPage(
+            @Parameter(description = "楼宇ID（可选）") @RequestParam(required = false) Long buildingId,
+            @Parameter(description = "页码（从0开始）") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "每页大小") @RequestParam(defaultValue = "20") int size) {
+
+        try {
+            Page<RoomDto> roomPage = roomService.getRoomsPage(buildingId, page, size);
+
+            ApiResponse.Pagination pagination = new ApiResponse.Pagination(
+                    roomPage.getNumber(),
+                    roomPage.getSize(),
+                    roomPage.getTotalElements(),
+                    roomPage.getTotalPages(),
+                    roomPage.isFirst(),
+                    roomPage.isLast()
+            );
+
+            log.info("分页获取房间列表成功，页码: {}, 每页: {}, 总数: {}", page, size, roomPage.getTotalElements());
+            return ResponseEntity.ok(ApiResponse.success(roomPage.getContent(), pagination));
+
+        } catch (Exception e) {
+            log.error("分页获取房间列表失败: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "获取房间详情", description = "根据房间ID获取房间详细信息")
     public ResponseEntity<ApiResponse<RoomDto>> getRoomById(@PathVariable Long id) {
@@ -0,0 +1,68 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.dto.UserDto;
+import com.example.demo.service.BuildingOwnershipIndex;
+import com.example.demo.service.SearchIndexService;
+import com.example.demo.service.UserService;
+import com.example.demo.util.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 搜索Controller
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchController.class);
+
+    /**
+     * 联想条数上限
+     */
+    private static final int MAX_SUGGEST_LIMIT = 50;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BuildingOwnershipIndex buildingOwnershipIndex;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * 输入联想：在当前用户拥有的楼宇中按前缀匹配楼宇名称、房号、房东姓名
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionDto>>> suggest(
+            @RequestParam String q,
+            @RequestParam(required = false) SuggestionDto.Type type,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+                throw new RuntimeException("联想条数应在 1 到 " + MAX_SUGGEST_LIMIT + " 之间");
+            }
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth == null) {
+                throw new RuntimeException("用户未登录");
+            }
+            UserDto user = userService.findByUsername(auth.getName())
+                    .orElseThrow(() -> new RuntimeException("用户不存在"));
+
+            List<Long> buildingIds = buildingOwnershipIndex.getBuildingIds(user.getId());
+            return ResponseEntity.ok(ApiResponse.success(searchIndexService.suggest(q, type, buildingIds, limit)));
+        } catch (Exception e) {
+            log.error("搜索联想失败，关键词: {}", q, e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
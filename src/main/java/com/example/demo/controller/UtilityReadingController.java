@@ -1,21 +1,39 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.BatchReadingImportResult;
 import com.example.demo.dto.CreateUtilityReadingRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ReadingTrendDto;
+import com.example.demo.dto.UsageStatisticsDto;
 import com.example.demo.dto.UtilityReadingDto;
 import com.example.demo.dto.UtilityReadingQueryDto;
+import com.example.demo.service.ReadingTrendService;
+import com.example.demo.service.UsageAggregationService;
 import com.example.demo.service.UtilityReadingService;
 import com.example.demo.util.ApiResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,9 +46,25 @@ public class UtilityReadingController {
 
     private static final Logger log = LoggerFactory.getLogger(UtilityReadingController.class);
 
+    private static final MediaType CSV_MEDIA_TYPE = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    /**
+     * 游标分页每页条数上限
+     */
+    private static final int MAX_SCROLL_SIZE = 200;
+
     @Autowired
     private UtilityReadingService utilityReadingService;
 
+    @Autowired
+    private UsageAggregationService usageAggregationService;
+
+    @Autowired
+    private ReadingTrendService readingTrendService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * 创建水电表记录
      */
@@ -51,6 +85,73 @@ public class UtilityReadingController {
         }
     }
 
+    /**
+     * 批量导入水电表记录（JSON数组）
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<BatchReadingImportResult>> importReadings(HttpServletRequest httpRequest) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Long userId = getUserIdFromAuth(auth);
+
+            // 逐个元素解析，超过行数上限立即停止，不把超大请求体整体读入内存
+            List<CreateUtilityReadingRequest> requests = new ArrayList<>();
+            try (JsonParser parser = objectMapper.getFactory().createParser(httpRequest.getInputStream())) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new RuntimeException("请求体应为JSON数组");
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new RuntimeException("JSON数组不完整");
+                    }
+                    checkImportRowLimit(requests.size());
+                    requests.add(parser.readValueAs(CreateUtilityReadingRequest.class));
+                }
+            }
+
+            BatchReadingImportResult result = utilityReadingService.importReadings(requests, userId);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("批量导入水电表记录失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 批量导入水电表记录（NDJSON，每行一条记录，无法解析的行单独报错）
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ApiResponse<BatchReadingImportResult>> importReadingsNdjson(HttpServletRequest httpRequest) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Long userId = getUserIdFromAuth(auth);
+
+            List<CreateUtilityReadingRequest> requests = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    checkImportRowLimit(requests.size());
+                    try {
+                        requests.add(objectMapper.readValue(line, CreateUtilityReadingRequest.class));
+                    } catch (JsonProcessingException e) {
+                        requests.add(null); // 由服务层按"数据格式错误"记入该行
+                    }
+                }
+            }
+
+            BatchReadingImportResult result = utilityReadingService.importReadings(requests, userId);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("批量导入水电表记录失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 根据ID获取水电表记录
      */
@@ -148,6 +249,40 @@ public class UtilityReadingController {
         }
     }
 
+    /**
+     * 导出水电表记录CSV（流式输出，查询条件与分页查询一致）
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReadings(UtilityReadingQueryDto queryDto) {
+        StreamingResponseBody body = outputStream -> utilityReadingService.exportReadingsCsv(queryDto, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=utility-readings.csv")
+                .contentType(CSV_MEDIA_TYPE)
+                .body(body);
+    }
+
+    /**
+     * 游标分页查询水电表记录（移动端滚动加载）
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPage<UtilityReadingDto>>> scrollReadings(
+            UtilityReadingQueryDto queryDto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            Integer size = queryDto.getSize();
+            if (size == null || size < 1 || size > MAX_SCROLL_SIZE) {
+                throw new RuntimeException("每页条数应在 1 到 " + MAX_SCROLL_SIZE + " 之间");
+            }
+            CursorPage<UtilityReadingDto> result = utilityReadingService.scrollReadings(queryDto, cursor, includeTotal);
+            log.info("游标分页查询水电表记录成功，本页: {}, 是否还有更多: {}", result.getItems().size(), result.isHasMore());
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            log.error("游标分页查询水电表记录失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 更新水电表记录
      */
@@ -208,12 +343,12 @@ public class UtilityReadingController {
      * 获取房间用量统计
      */
     @GetMapping("/room/{roomId}/statistics")
-    public ResponseEntity<ApiResponse<Object[]>> getRoomUsageStatistics(
+    public ResponseEntity<ApiResponse<UsageStatisticsDto>> getRoomUsageStatistics(
             @PathVariable Long roomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            Object[] statistics = utilityReadingService.getRoomUsageStatistics(roomId, startDate, endDate);
+            UsageStatisticsDto statistics = utilityReadingService.getRoomUsageStatistics(roomId, startDate, endDate);
             log.info("获取房间用量统计成功，房间ID: {}", roomId);
             
             return ResponseEntity.ok(ApiResponse.success(statistics));
@@ -227,12 +362,12 @@ public class UtilityReadingController {
      * 获取楼宇用量统计
      */
     @GetMapping("/building/{buildingId}/statistics")
-    public ResponseEntity<ApiResponse<Object[]>> getBuildingUsageStatistics(
+    public ResponseEntity<ApiResponse<UsageStatisticsDto>> getBuildingUsageStatistics(
             @PathVariable Long buildingId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         try {
-            Object[] statistics = utilityReadingService.getBuildingUsageStatistics(buildingId, startDate, endDate);
+            UsageStatisticsDto statistics = utilityReadingService.getBuildingUsageStatistics(buildingId, startDate, endDate);
             log.info("获取楼宇用量统计成功，楼宇ID: {}", buildingId);
             
             return ResponseEntity.ok(ApiResponse.success(statistics));
@@ -242,6 +377,41 @@ public class UtilityReadingController {
         }
     }
 
+    /**
+     * 获取房间读数趋势（服务端按周/月/季度聚合或LTTB降采样）
+     */
+    @GetMapping("/room/{roomId}/trend")
+    public ResponseEntity<ApiResponse<ReadingTrendDto>> getReadingTrend(
+            @PathVariable Long roomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "MONTH") ReadingTrendDto.Downsample downsample,
+            @RequestParam(defaultValue = "500") int maxPoints) {
+        try {
+            ReadingTrendDto trend = readingTrendService.getReadingTrend(roomId, startDate, endDate, downsample, maxPoints);
+            return ResponseEntity.ok(ApiResponse.success(trend));
+        } catch (Exception e) {
+            log.error("获取房间读数趋势失败，房间ID: {}", roomId, e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 重建日期范围内的每日用量汇总（初始化或数据修复时使用）
+     */
+    @PostMapping("/statistics/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildUsageStatistics(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            int rows = usageAggregationService.rebuild(startDate, endDate);
+            return ResponseEntity.ok(ApiResponse.success("每日用量汇总重建完成", rows));
+        } catch (Exception e) {
+            log.error("重建每日用量汇总失败", e);
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     /**
      * 获取待确认记录数量
      */
@@ -278,6 +448,15 @@ public class UtilityReadingController {
         }
     }
 
+    /**
+     * 已读取行数达到导入上限时终止解析
+     */
+    private void checkImportRowLimit(int parsedRows) {
+        if (parsedRows >= UtilityReadingService.MAX_IMPORT_ROWS) {
+            throw new RuntimeException("单次最多导入 " + UtilityReadingService.MAX_IMPORT_ROWS + " 条记录");
+        }
+    }
+
     /**
      * 从认证信息中获取用户ID
      */
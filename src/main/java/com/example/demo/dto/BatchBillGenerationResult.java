@@ -0,0 +1,55 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量生成账单结果DTO
+ */
+public class BatchBillGenerationResult {
+
+    private String billMonth;
+    private int totalRooms;
+    private int createdCount;
+    private int skippedCount;
+    private int failedCount;
+    private List<String> failures = new ArrayList<>();
+    private long elapsedMillis;
+
+    // 构造函数
+    public BatchBillGenerationResult() {}
+
+    public BatchBillGenerationResult(String billMonth) {
+        this.billMonth = billMonth;
+    }
+
+    /**
+     * 记录生成失败的房间
+     */
+    public void addFailure(Long roomId, String reason) {
+        this.failedCount++;
+        this.failures.add("房间 " + roomId + ": " + reason);
+    }
+
+    // Getter和Setter方法
+    public String getBillMonth() { return billMonth; }
+    public void setBillMonth(String billMonth) { this.billMonth = billMonth; }
+
+    public int getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(int totalRooms) { this.totalRooms = totalRooms; }
+
+    public int getCreatedCount() { return createdCount; }
+    public void setCreatedCount(int createdCount) { this.createdCount = createdCount; }
+
+    public int getSkippedCount() { return skippedCount; }
+    public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public List<String> getFailures() { return failures; }
+    public void setFailures(List<String> failures) { this.failures = failures; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
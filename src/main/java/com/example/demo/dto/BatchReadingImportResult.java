@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入抄表记录结果DTO
+ */
+public class BatchReadingImportResult {
+
+    private int totalRows;
+    private int createdCount;
+    private int failedCount;
+    private List<String> failures = new ArrayList<>();
+    private long elapsedMillis;
+
+    // 构造函数
+    public BatchReadingImportResult() {}
+
+    public BatchReadingImportResult(int totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    /**
+     * 记录导入失败的行（行号从1开始）
+     */
+    public void addFailure(int rowNumber, String reason) {
+        this.failedCount++;
+        this.failures.add("第 " + rowNumber + " 行: " + reason);
+    }
+
+    // Getter和Setter方法
+    public int getTotalRows() { return totalRows; }
+    public void setTotalRows(int totalRows) { this.totalRows = totalRows; }
+
+    public int getCreatedCount() { return createdCount; }
+    public void setCreatedCount(int createdCount) { this.createdCount = createdCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public List<String> getFailures() { return failures; }
+    public void setFailures(List<String> failures) { this.failures = failures; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
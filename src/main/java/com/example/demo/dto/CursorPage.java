@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * 游标分页结果DTO
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+    private Long totalElements; // 仅在请求时统计，否则为null
+
+    // 构造函数
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, int size, boolean hasMore, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getter和Setter方法
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+}
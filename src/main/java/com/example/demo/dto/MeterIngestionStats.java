@@ -0,0 +1,55 @@
+package com.example.demo.dto;
+
+import java.util.Map;
+
+/**
+ * 智能表读数采集管道运行状态DTO
+ *
+ * accepted 为进入队列的读数，队列清空后等于 written + dropped；
+ * dropped 按原因细分：unknown_room（房间不存在）、manual_wins（当天已有人工抄表）、
+ * stale（比当天已有的自动抄表旧）、superseded（同批次同房间同一天被更新的推送合并）、error（写入失败）。
+ * invalid（数据不完整）和 rejected（队列已满）的读数没有进入队列，不计入 accepted。
+ */
+public class MeterIngestionStats {
+
+    private int queueDepth;
+    private int queueCapacity;
+    private long acceptedCount;
+    private long rejectedCount;
+    private long invalidCount;
+    private long droppedCount;
+    private Map<String, Long> droppedByReason;
+    private long writtenCount;
+    private long lastFlushMillis;
+
+    // 构造函数
+    public MeterIngestionStats() {}
+
+    // Getter和Setter方法
+    public int getQueueDepth() { return queueDepth; }
+    public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getAcceptedCount() { return acceptedCount; }
+    public void setAcceptedCount(long acceptedCount) { this.acceptedCount = acceptedCount; }
+
+    public long getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(long rejectedCount) { this.rejectedCount = rejectedCount; }
+
+    public long getInvalidCount() { return invalidCount; }
+    public void setInvalidCount(long invalidCount) { this.invalidCount = invalidCount; }
+
+    public long getDroppedCount() { return droppedCount; }
+    public void setDroppedCount(long droppedCount) { this.droppedCount = droppedCount; }
+
+    public Map<String, Long> getDroppedByReason() { return droppedByReason; }
+    public void setDroppedByReason(Map<String, Long> droppedByReason) { this.droppedByReason = droppedByReason; }
+
+    public long getWrittenCount() { return writtenCount; }
+    public void setWrittenCount(long writtenCount) { this.writtenCount = writtenCount; }
+
+    public long getLastFlushMillis() { return lastFlushMillis; }
+    public void setLastFlushMillis(long lastFlushMillis) { this.lastFlushMillis = lastFlushMillis; }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+/**
+ * 智能表读数推送受理结果DTO
+ */
+public class MeterPushResult {
+
+    private int acceptedCount;
+    private int rejectedCount; // 队列已满被拒绝，网关应稍后重试
+    private int invalidCount;  // 数据不完整被丢弃，重试无意义
+
+    // 构造函数
+    public MeterPushResult() {}
+
+    // Getter和Setter方法
+    public int getAcceptedCount() { return acceptedCount; }
+    public void setAcceptedCount(int acceptedCount) { this.acceptedCount = acceptedCount; }
+
+    public int getRejectedCount() { return rejectedCount; }
+    public void setRejectedCount(int rejectedCount) { this.rejectedCount = rejectedCount; }
+
+    public int getInvalidCount() { return invalidCount; }
+    public void setInvalidCount(int invalidCount) { this.invalidCount = invalidCount; }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 智能表网关推送的读数DTO
+ */
+public class MeterReadingPush {
+
+    /**
+     * 网关编号
+     */
+    private String gatewayId;
+
+    /**
+     * 房间ID
+     */
+    private Long roomId;
+
+    /**
+     * 采集时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime readingTime;
+
+    /**
+     * 电表读数(度)
+     */
+    private BigDecimal electricityReading;
+
+    /**
+     * 水表读数(吨)
+     */
+    private BigDecimal waterReading;
+
+    /**
+     * 热水表读数(吨)
+     */
+    private BigDecimal hotWaterReading;
+
+    // 构造函数
+    public MeterReadingPush() {}
+
+    public MeterReadingPush(String gatewayId, Long roomId, LocalDateTime readingTime,
+                            BigDecimal electricityReading, BigDecimal waterReading, BigDecimal hotWaterReading) {
+        this.gatewayId = gatewayId;
+        this.roomId = roomId;
+        this.readingTime = readingTime;
+        this.electricityReading = electricityReading;
+        this.waterReading = waterReading;
+        this.hotWaterReading = hotWaterReading;
+    }
+
+    // Getter和Setter方法
+    public String getGatewayId() { return gatewayId; }
+    public void setGatewayId(String gatewayId) { this.gatewayId = gatewayId; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public LocalDateTime getReadingTime() { return readingTime; }
+    public void setReadingTime(LocalDateTime readingTime) { this.readingTime = readingTime; }
+
+    public BigDecimal getElectricityReading() { return electricityReading; }
+    public void setElectricityReading(BigDecimal electricityReading) { this.electricityReading = electricityReading; }
+
+    public BigDecimal getWaterReading() { return waterReading; }
+    public void setWaterReading(BigDecimal waterReading) { this.waterReading = waterReading; }
+
+    public BigDecimal getHotWaterReading() { return hotWaterReading; }
+    public void setHotWaterReading(BigDecimal hotWaterReading) { this.hotWaterReading = hotWaterReading; }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 月度营收汇总DTO（月份 × 楼宇 × 账单状态）
+ */
+public class MonthlyRevenueRollupDto {
+
+    private String billMonth;
+    private Long buildingId;
+    private String buildingName;
+    private String billStatus;
+    private Long billCount;
+    private BigDecimal rent;
+    private BigDecimal deposit;
+    private BigDecimal electricityAmount;
+    private BigDecimal waterAmount;
+    private BigDecimal hotWaterAmount;
+    private BigDecimal totalAmount;
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public MonthlyRevenueRollupDto() {}
+
+    // Getter和Setter方法
+    public String getBillMonth() { return billMonth; }
+    public void setBillMonth(String billMonth) { this.billMonth = billMonth; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public String getBuildingName() { return buildingName; }
+    public void setBuildingName(String buildingName) { this.buildingName = buildingName; }
+
+    public String getBillStatus() { return billStatus; }
+    public void setBillStatus(String billStatus) { this.billStatus = billStatus; }
+
+    public Long getBillCount() { return billCount; }
+    public void setBillCount(Long billCount) { this.billCount = billCount; }
+
+    public BigDecimal getRent() { return rent; }
+    public void setRent(BigDecimal rent) { this.rent = rent; }
+
+    public BigDecimal getDeposit() { return deposit; }
+    public void setDeposit(BigDecimal deposit) { this.deposit = deposit; }
+
+    public BigDecimal getElectricityAmount() { return electricityAmount; }
+    public void setElectricityAmount(BigDecimal electricityAmount) { this.electricityAmount = electricityAmount; }
+
+    public BigDecimal getWaterAmount() { return waterAmount; }
+    public void setWaterAmount(BigDecimal waterAmount) { this.waterAmount = waterAmount; }
+
+    public BigDecimal getHotWaterAmount() { return hotWaterAmount; }
+    public void setHotWaterAmount(BigDecimal hotWaterAmount) { this.hotWaterAmount = hotWaterAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
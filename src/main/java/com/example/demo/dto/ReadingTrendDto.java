@@ -0,0 +1,66 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 房间读数趋势DTO（服务端降采样后的数据点）
+ */
+public class ReadingTrendDto {
+
+    private Long roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Downsample downsample;
+
+    /**
+     * 降采样前的原始记录数
+     */
+    private int sourceCount;
+
+    private List<ReadingTrendPoint> points = new ArrayList<>();
+
+    /**
+     * 降采样方式
+     */
+    public enum Downsample {
+        NONE("不降采样"),
+        WEEK("按周聚合"),
+        MONTH("按月聚合"),
+        QUARTER("按季度聚合"),
+        LTTB("LTTB降采样到目标点数");
+
+        private final String description;
+
+        Downsample(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // 构造函数
+    public ReadingTrendDto() {}
+
+    // Getter和Setter方法
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Downsample getDownsample() { return downsample; }
+    public void setDownsample(Downsample downsample) { this.downsample = downsample; }
+
+    public int getSourceCount() { return sourceCount; }
+    public void setSourceCount(int sourceCount) { this.sourceCount = sourceCount; }
+
+    public List<ReadingTrendPoint> getPoints() { return points; }
+    public void setPoints(List<ReadingTrendPoint> points) { this.points = points; }
+}
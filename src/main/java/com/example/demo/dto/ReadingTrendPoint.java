@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 读数趋势数据点
+ * 按周/月/季度聚合时：日期为区间起始日，读数取区间内最后一条，用量为区间内合计
+ */
+public class ReadingTrendPoint {
+
+    private LocalDate date;
+    private BigDecimal electricityReading;
+    private BigDecimal waterReading;
+    private BigDecimal hotWaterReading;
+    private BigDecimal electricityUsage;
+    private BigDecimal waterUsage;
+    private BigDecimal hotWaterUsage;
+    private int readingCount;
+
+    // 构造函数
+    public ReadingTrendPoint() {}
+
+    public ReadingTrendPoint(LocalDate date) {
+        this.date = date;
+    }
+
+    // Getter和Setter方法
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public BigDecimal getElectricityReading() { return electricityReading; }
+    public void setElectricityReading(BigDecimal electricityReading) { this.electricityReading = electricityReading; }
+
+    public BigDecimal getWaterReading() { return waterReading; }
+    public void setWaterReading(BigDecimal waterReading) { this.waterReading = waterReading; }
+
+    public BigDecimal getHotWaterReading() { return hotWaterReading; }
+    public void setHotWaterReading(BigDecimal hotWaterReading) { this.hotWaterReading = hotWaterReading; }
+
+    public BigDecimal getElectricityUsage() { return electricityUsage; }
+    public void setElectricityUsage(BigDecimal electricityUsage) { this.electricityUsage = electricityUsage; }
+
+    public BigDecimal getWaterUsage() { return waterUsage; }
+    public void setWaterUsage(BigDecimal waterUsage) { this.waterUsage = waterUsage; }
+
+    public BigDecimal getHotWaterUsage() { return hotWaterUsage; }
+    public void setHotWaterUsage(BigDecimal hotWaterUsage) { this.hotWaterUsage = hotWaterUsage; }
+
+    public int getReadingCount() { return readingCount; }
+    public void setReadingCount(int readingCount) { this.readingCount = readingCount; }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.dto;
+
+/**
+ * 搜索联想条目DTO
+ */
+public class SuggestionDto {
+
+    private Type type;
+
+    /**
+     * 楼宇名称、房东姓名联想为楼宇ID，房号联想为房间ID
+     */
+    private Long id;
+
+    private String text;
+    private Long buildingId;
+    private String buildingName;
+
+    /**
+     * 联想类型
+     */
+    public enum Type {
+        BUILDING("楼宇名称"),
+        ROOM("房号"),
+        LANDLORD("房东姓名");
+
+        private final String description;
+
+        Type(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // 构造函数
+    public SuggestionDto() {}
+
+    public SuggestionDto(Type type, Long id, String text, Long buildingId, String buildingName) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.buildingId = buildingId;
+        this.buildingName = buildingName;
+    }
+
+    // Getter和Setter方法
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public String getBuildingName() { return buildingName; }
+    public void setBuildingName(String buildingName) { this.buildingName = buildingName; }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 用量统计DTO（房间或楼宇在日期范围内的已确认用量合计）
+ */
+public class UsageStatisticsDto {
+
+    private Long roomId;
+    private Long buildingId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal totalElectricityUsage;
+    private BigDecimal totalWaterUsage;
+    private BigDecimal totalHotWaterUsage;
+    private Long roomCount;
+    private Long readingCount;
+
+    // 构造函数
+    public UsageStatisticsDto() {}
+
+    // Getter和Setter方法
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public BigDecimal getTotalElectricityUsage() { return totalElectricityUsage; }
+    public void setTotalElectricityUsage(BigDecimal totalElectricityUsage) { this.totalElectricityUsage = totalElectricityUsage; }
+
+    public BigDecimal getTotalWaterUsage() { return totalWaterUsage; }
+    public void setTotalWaterUsage(BigDecimal totalWaterUsage) { this.totalWaterUsage = totalWaterUsage; }
+
+    public BigDecimal getTotalHotWaterUsage() { return totalHotWaterUsage; }
+    public void setTotalHotWaterUsage(BigDecimal totalHotWaterUsage) { this.totalHotWaterUsage = totalHotWaterUsage; }
+
+    public Long getRoomCount() { return roomCount; }
+    public void setRoomCount(Long roomCount) { this.roomCount = roomCount; }
+
+    public Long getReadingCount() { return readingCount; }
+    public void setReadingCount(Long readingCount) { this.readingCount = readingCount; }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 楼宇月度水电利润DTO（收入取自账单金额，成本 = 用量 × 楼宇成本单价）
+ */
+public class UtilityMarginDto {
+
+    private String billMonth;
+    private Long buildingId;
+    private String buildingName;
+    private Long billCount;
+
+    private BigDecimal electricityUsage;
+    private BigDecimal electricityRevenue;
+    private BigDecimal electricityCost;
+    private BigDecimal electricityMargin;
+
+    private BigDecimal waterUsage;
+    private BigDecimal waterRevenue;
+    private BigDecimal waterCost;
+    private BigDecimal waterMargin;
+
+    private BigDecimal hotWaterUsage;
+    private BigDecimal hotWaterRevenue;
+    private BigDecimal hotWaterCost;
+    private BigDecimal hotWaterMargin;
+
+    private BigDecimal totalRevenue;
+    private BigDecimal totalCost;
+    private BigDecimal totalMargin;
+
+    /**
+     * 利润率（利润 / 收入），收入为0时为空
+     */
+    private BigDecimal marginRate;
+
+    // 构造函数
+    public UtilityMarginDto() {}
+
+    // Getter和Setter方法
+    public String getBillMonth() { return billMonth; }
+    public void setBillMonth(String billMonth) { this.billMonth = billMonth; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public String getBuildingName() { return buildingName; }
+    public void setBuildingName(String buildingName) { this.buildingName = buildingName; }
+
+    public Long getBillCount() { return billCount; }
+    public void setBillCount(Long billCount) { this.billCount = billCount; }
+
+    public BigDecimal getElectricityUsage() { return electricityUsage; }
+    public void setElectricityUsage(BigDecimal electricityUsage) { this.electricityUsage = electricityUsage; }
+
+    public BigDecimal getElectricityRevenue() { return electricityRevenue; }
+    public void setElectricityRevenue(BigDecimal electricityRevenue) { this.electricityRevenue = electricityRevenue; }
+
+    public BigDecimal getElectricityCost() { return electricityCost; }
+    public void setElectricityCost(BigDecimal electricityCost) { this.electricityCost = electricityCost; }
+
+    public BigDecimal getElectricityMargin() { return electricityMargin; }
+    public void setElectricityMargin(BigDecimal electricityMargin) { this.electricityMargin = electricityMargin; }
+
+    public BigDecimal getWaterUsage() { return waterUsage; }
+    public void setWaterUsage(BigDecimal waterUsage) { this.waterUsage = waterUsage; }
+
+    public BigDecimal getWaterRevenue() { return waterRevenue; }
+    public void setWaterRevenue(BigDecimal waterRevenue) { this.waterRevenue = waterRevenue; }
+
+    public BigDecimal getWaterCost() { return waterCost; }
+    public void setWaterCost(BigDecimal waterCost) { this.waterCost = waterCost; }
+
+    public BigDecimal getWaterMargin() { return waterMargin; }
+    public void setWaterMargin(BigDecimal waterMargin) { this.waterMargin = waterMargin; }
+
+    public BigDecimal getHotWaterUsage() { return hotWaterUsage; }
+    public void setHotWaterUsage(BigDecimal hotWaterUsage) { this.hotWaterUsage = hotWaterUsage; }
+
+    public BigDecimal getHotWaterRevenue() { return hotWaterRevenue; }
+    public void setHotWaterRevenue(BigDecimal hotWaterRevenue) { this.hotWaterRevenue = hotWaterRevenue; }
+
+    public BigDecimal getHotWaterCost() { return hotWaterCost; }
+    public void setHotWaterCost(BigDecimal hotWaterCost) { this.hotWaterCost = hotWaterCost; }
+
+    public BigDecimal getHotWaterMargin() { return hotWaterMargin; }
+    public void setHotWaterMargin(BigDecimal hotWaterMargin) { this.hotWaterMargin = hotWaterMargin; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+    public void setTotalCost(BigDecimal totalCost) { this.totalCost = totalCost; }
+
+    public BigDecimal getTotalMargin() { return totalMargin; }
+    public void setTotalMargin(BigDecimal totalMargin) { this.totalMargin = totalMargin; }
+
+    public BigDecimal getMarginRate() { return marginRate; }
+    public void setMarginRate(BigDecimal marginRate) { this.marginRate = marginRate; }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,11 +11,13 @@ import java.time.LocalDateTime;
  * 账单实体
  */
 @Entity
-@Table(name = "estimated_bills")
+@Table(name = "estimated_bills",
+       indexes = @Index(name = "idx_bill_month_room", columnList = "bill_month DESC, room_id"))
 public class Bill {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_seq")
+    @SequenceGenerator(name = "bill_seq", sequenceName = "estimated_bills_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -148,6 +152,14 @@ public class Bill {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /**
+     * 乐观锁版本号，后台重算与并发的状态变更、编辑冲突时由后提交的一方失败
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * 账单状态枚举
      */
@@ -248,6 +260,9 @@ public class Bill {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
@@ -0,0 +1,135 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 账单月度汇总实体（月份 × 楼宇 × 账单状态）
+ *
+ * 由 BillRollupService 在每次账单写入时于同一事务内刷新，供看板直接读取，
+ * 不再对 estimated_bills 做全表聚合。
+ */
+@Entity
+@Table(name = "bill_monthly_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_bill_rollup_month_building_status",
+               columnNames = {"bill_month", "building_id", "bill_status"}))
+public class BillMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bill_rollup_seq")
+    @SequenceGenerator(name = "bill_rollup_seq", sequenceName = "bill_monthly_rollups_id_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * 账单年月 (格式: YYYY-MM)
+     */
+    @Column(name = "bill_month", nullable = false, length = 7)
+    private String billMonth;
+
+    /**
+     * 楼宇ID
+     */
+    @Column(name = "building_id", nullable = false)
+    private Long buildingId;
+
+    /**
+     * 账单状态
+     */
+    @Column(name = "bill_status", nullable = false, length = 20)
+    private String billStatus;
+
+    /**
+     * 账单数量
+     */
+    @Column(name = "bill_count", nullable = false)
+    private Long billCount;
+
+    /**
+     * 房租合计
+     */
+    @Column(name = "rent", precision = 14, scale = 2)
+    private BigDecimal rent;
+
+    /**
+     * 押金合计
+     */
+    @Column(name = "deposit", precision = 14, scale = 2)
+    private BigDecimal deposit;
+
+    /**
+     * 电费合计
+     */
+    @Column(name = "electricity_amount", precision = 14, scale = 2)
+    private BigDecimal electricityAmount;
+
+    /**
+     * 水费合计
+     */
+    @Column(name = "water_amount", precision = 14, scale = 2)
+    private BigDecimal waterAmount;
+
+    /**
+     * 热水费合计
+     */
+    @Column(name = "hot_water_amount", precision = 14, scale = 2)
+    private BigDecimal hotWaterAmount;
+
+    /**
+     * 总金额合计
+     */
+    @Column(name = "total_amount", precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public BillMonthlyRollup() {}
+
+    public BillMonthlyRollup(String billMonth, Long buildingId, String billStatus) {
+        this.billMonth = billMonth;
+        this.buildingId = buildingId;
+        this.billStatus = billStatus;
+    }
+
+    // Getter和Setter方法
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBillMonth() { return billMonth; }
+    public void setBillMonth(String billMonth) { this.billMonth = billMonth; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public String getBillStatus() { return billStatus; }
+    public void setBillStatus(String billStatus) { this.billStatus = billStatus; }
+
+    public Long getBillCount() { return billCount; }
+    public void setBillCount(Long billCount) { this.billCount = billCount; }
+
+    public BigDecimal getRent() { return rent; }
+    public void setRent(BigDecimal rent) { this.rent = rent; }
+
+    public BigDecimal getDeposit() { return deposit; }
+    public void setDeposit(BigDecimal deposit) { this.deposit = deposit; }
+
+    public BigDecimal getElectricityAmount() { return electricityAmount; }
+    public void setElectricityAmount(BigDecimal electricityAmount) { this.electricityAmount = electricityAmount; }
+
+    public BigDecimal getWaterAmount() { return waterAmount; }
+    public void setWaterAmount(BigDecimal waterAmount) { this.waterAmount = waterAmount; }
+
+    public BigDecimal getHotWaterAmount() { return hotWaterAmount; }
+    public void setHotWaterAmount(BigDecimal hotWaterAmount) { this.hotWaterAmount = hotWaterAmount; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class Building {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "building_seq")
+    @SequenceGenerator(name = "building_seq", sequenceName = "buildings_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "楼宇名称不能为空")
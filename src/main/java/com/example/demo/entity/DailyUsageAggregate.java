@@ -0,0 +1,103 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 房间每日用量汇总实体（仅统计已确认的抄表记录）
+ *
+ * 由 UsageAggregationService 定时刷新，用量统计接口按日期范围对本表求和，
+ * 不再扫描 utility_readings。冗余楼宇ID，楼宇统计无需关联房间表。
+ */
+@Entity
+@Table(name = "daily_usage_aggregates",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_usage_room_date", columnNames = {"room_id", "usage_date"}),
+       indexes = @Index(name = "idx_daily_usage_building_date", columnList = "building_id, usage_date"))
+public class DailyUsageAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_usage_seq")
+    @SequenceGenerator(name = "daily_usage_seq", sequenceName = "daily_usage_aggregates_id_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * 房间ID
+     */
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    /**
+     * 楼宇ID
+     */
+    @Column(name = "building_id", nullable = false)
+    private Long buildingId;
+
+    /**
+     * 用量日期
+     */
+    @Column(name = "usage_date", nullable = false)
+    private LocalDate usageDate;
+
+    /**
+     * 用电量
+     */
+    @Column(name = "electricity_usage", precision = 12, scale = 2)
+    private BigDecimal electricityUsage;
+
+    /**
+     * 用水量
+     */
+    @Column(name = "water_usage", precision = 12, scale = 2)
+    private BigDecimal waterUsage;
+
+    /**
+     * 热水用量
+     */
+    @Column(name = "hot_water_usage", precision = 12, scale = 2)
+    private BigDecimal hotWaterUsage;
+
+    /**
+     * 抄表记录数
+     */
+    @Column(name = "reading_count", nullable = false)
+    private Long readingCount;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // 构造函数
+    public DailyUsageAggregate() {}
+
+    // Getter和Setter方法
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public Long getBuildingId() { return buildingId; }
+    public void setBuildingId(Long buildingId) { this.buildingId = buildingId; }
+
+    public LocalDate getUsageDate() { return usageDate; }
+    public void setUsageDate(LocalDate usageDate) { this.usageDate = usageDate; }
+
+    public BigDecimal getElectricityUsage() { return electricityUsage; }
+    public void setElectricityUsage(BigDecimal electricityUsage) { this.electricityUsage = electricityUsage; }
+
+    public BigDecimal getWaterUsage() { return waterUsage; }
+    public void setWaterUsage(BigDecimal waterUsage) { this.waterUsage = waterUsage; }
+
+    public BigDecimal getHotWaterUsage() { return hotWaterUsage; }
+    public void setHotWaterUsage(BigDecimal hotWaterUsage) { this.hotWaterUsage = hotWaterUsage; }
+
+    public Long getReadingCount() { return readingCount; }
+    public void setReadingCount(Long readingCount) { this.readingCount = readingCount; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class Room {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "rooms_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "房号不能为空")
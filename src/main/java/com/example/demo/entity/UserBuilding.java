@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class UserBuilding {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_building_seq")
+    @SequenceGenerator(name = "user_building_seq", sequenceName = "user_buildings_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "user_id", nullable = false)
@@ -18,7 +18,8 @@ import java.util.List;
            @Index(name = "idx_room_id", columnList = "room_id"),
            @Index(name = "idx_reading_date", columnList = "reading_date"),
            @Index(name = "idx_reading_time", columnList = "reading_time"),
-           @Index(name = "idx_room_date", columnList = "room_id, reading_date")
+           @Index(name = "idx_room_date", columnList = "room_id, reading_date"),
+           @Index(name = "idx_reading_date_time_id", columnList = "reading_date, reading_time, id")
        })
 public class UtilityReading {
 
@@ -26,7 +27,8 @@ public class UtilityReading {
      * 主键ID
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "utility_reading_seq")
+    @SequenceGenerator(name = "utility_reading_seq", sequenceName = "utility_readings_id_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -82,9 +84,9 @@ public class UtilityReading {
     private BigDecimal electricityPreviousReading = BigDecimal.ZERO;
 
     /**
-     * 本期用电量(度) - 数据库计算字段
+     * 本期用电量(度) - 本期读数减上次读数
      */
-    @Column(name = "electricity_usage", precision = 10, scale = 2, insertable = false, updatable = false)
+    @Column(name = "electricity_usage", precision = 10, scale = 2)
     private BigDecimal electricityUsage;
 
     // ==================== 水表相关 ====================
@@ -102,9 +104,9 @@ public class UtilityReading {
     private BigDecimal waterPreviousReading = BigDecimal.ZERO;
 
     /**
-     * 本期用水量(吨) - 数据库计算字段
+     * 本期用水量(吨) - 本期读数减上次读数
      */
-    @Column(name = "water_usage", precision = 10, scale = 2, insertable = false, updatable = false)
+    @Column(name = "water_usage", precision = 10, scale = 2)
     private BigDecimal waterUsage;
 
     // ==================== 热水表相关 ====================
@@ -122,9 +124,9 @@ public class UtilityReading {
     private BigDecimal hotWaterPreviousReading = BigDecimal.ZERO;
 
     /**
-     * 本期热水用量(吨) - 数据库计算字段
+     * 本期热水用量(吨) - 本期读数减上次读数
      */
-    @Column(name = "hot_water_usage", precision = 10, scale = 2, insertable = false, updatable = false)
+    @Column(name = "hot_water_usage", precision = 10, scale = 2)
     private BigDecimal hotWaterUsage;
 
     // ==================== 抄表信息 ====================
@@ -159,6 +161,12 @@ public class UtilityReading {
     @Column(name = "photos", columnDefinition = "TEXT")
     private String photos;
 
+    /**
+     * 上一条抄表记录的日期（不入库，由 ReadingUsageCalculator 计算上次读数时设置，无上一条时为空）
+     */
+    @Transient
+    private LocalDate previousReadingDate;
+
     // ==================== 关联关系 ====================
     
     /**
@@ -232,6 +240,9 @@ public class UtilityReading {
     public String getPhotos() { return photos; }
     public void setPhotos(String photos) { this.photos = photos; }
 
+    public LocalDate getPreviousReadingDate() { return previousReadingDate; }
+    public void setPreviousReadingDate(LocalDate previousReadingDate) { this.previousReadingDate = previousReadingDate; }
+
     public Room getRoom() { return room; }
     public void setRoom(Room room) { this.room = room; }
 
@@ -0,0 +1,44 @@
+package com.example.demo.event;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 抄表记录变更事件（新增、修改、确认、删除后发布）
+ */
+public class UtilityReadingChangedEvent {
+
+    private static final DateTimeFormatter BILL_MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Long roomId;
+    private final Set<LocalDate> readingDates;
+
+    public UtilityReadingChangedEvent(Long roomId, Collection<LocalDate> readingDates) {
+        this.roomId = roomId;
+        this.readingDates = Set.copyOf(readingDates);
+    }
+
+    /**
+     * 受影响的账单月份：读数所在月份（作为当月读数）及其下一个月（作为上月读数）
+     */
+    public Set<String> getAffectedBillMonths() {
+        Set<String> months = new TreeSet<>();
+        for (LocalDate date : readingDates) {
+            months.add(date.format(BILL_MONTH_FORMATTER));
+            months.add(date.plusMonths(1).format(BILL_MONTH_FORMATTER));
+        }
+        return months;
+    }
+
+    public Long getRoomId() { return roomId; }
+
+    public Set<LocalDate> getReadingDates() { return readingDates; }
+
+    @Override
+    public String toString() {
+        return "UtilityReadingChangedEvent{roomId=" + roomId + ", readingDates=" + readingDates + "}";
+    }
+}
@@ -5,6 +5,9 @@ import com.example.demo.entity.Room;
 import com.example.demo.entity.Building;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class RoomMapper {
 
@@ -66,6 +69,33 @@ public class RoomMapper {
         return dto;
     }
 
+    /**
+     * 将 [Room, Building, username] 查询行转换为DTO
+     */
+    public RoomDto fromRow(Object[] row) {
+        if (row == null) {
+            return null;
+        }
+
+        RoomDto dto = toDtoWithBuilding((Room) row[0], (Building) row[1]);
+        if (dto != null) {
+            dto.setCreatedByUsername((String) row[2]);
+        }
+        return dto;
+    }
+
+    public List<RoomDto> fromRows(List<Object[]> rows) {
+        if (rows == null) {
+            return new ArrayList<>();
+        }
+
+        List<RoomDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(fromRow(row));
+        }
+        return result;
+    }
+
     public Room toEntity(RoomDto roomDto) {
         if (roomDto == null) {
             return null;
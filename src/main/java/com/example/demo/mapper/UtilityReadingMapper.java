@@ -38,6 +38,7 @@ public interface UtilityReadingMapper {
     @Mapping(target = "electricityPreviousReading", ignore = true)
     @Mapping(target = "waterPreviousReading", ignore = true)
     @Mapping(target = "hotWaterPreviousReading", ignore = true)
+    @Mapping(target = "previousReadingDate", ignore = true)
     @Mapping(target = "photos", source = "photos", qualifiedByName = "listToString")
     UtilityReading toEntity(UtilityReadingDto dto);
 
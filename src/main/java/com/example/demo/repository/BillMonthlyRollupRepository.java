@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.BillMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 账单月度汇总Repository
+ */
+@Repository
+public interface BillMonthlyRollupRepository extends JpaRepository<BillMonthlyRollup, Long> {
+
+    /**
+     * 查询指定月份、指定楼宇的汇总行（刷新汇总时使用）
+     */
+    List<BillMonthlyRollup> findByBillMonthAndBuildingIdIn(String billMonth, Collection<Long> buildingIds);
+
+    /**
+     * 按月份范围和楼宇查询汇总行（看板使用）
+     */
+    @Query("SELECT e FROM BillMonthlyRollup e WHERE " +
+           "(:fromMonth IS NULL OR e.billMonth >= :fromMonth) AND " +
+           "(:toMonth IS NULL OR e.billMonth <= :toMonth) AND " +
+           "(:buildingId IS NULL OR e.buildingId = :buildingId) " +
+           "ORDER BY e.billMonth DESC, e.buildingId ASC, e.billStatus ASC")
+    List<BillMonthlyRollup> findForDashboard(
+            @Param("fromMonth") String fromMonth,
+            @Param("toMonth") String toMonth,
+            @Param("buildingId") Long buildingId);
+}
@@ -1,15 +1,22 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Bill;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * 账单Repository
@@ -32,6 +39,12 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
      */
     List<Bill> findByBillMonth(String billMonth);
 
+    /**
+     * 查询房间在指定月份、指定状态的账单（抄表变更后重算使用）
+     */
+    List<Bill> findByRoomIdAndBillMonthInAndBillStatusIn(Long roomId, Collection<String> billMonths,
+                                                         Collection<String> billStatuses);
+
     /**
      * 根据账单状态查询账单
      */
@@ -51,6 +64,68 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
             @Param("billStatus") Bill.BillStatus billStatus,
             Pageable pageable);
 
+    /**
+     * 游标分页 - 第一页
+     */
+    @Query("SELECT e FROM Bill e WHERE " +
+           "(:roomId IS NULL OR e.roomId = :roomId) AND " +
+           "(:billMonth IS NULL OR e.billMonth = :billMonth) AND " +
+           "(:billStatus IS NULL OR e.billStatus = :billStatus) " +
+           "ORDER BY e.billMonth DESC, e.roomId ASC")
+    List<Bill> scrollFirst(
+            @Param("roomId") Long roomId,
+            @Param("billMonth") String billMonth,
+            @Param("billStatus") Bill.BillStatus billStatus,
+            Pageable pageable);
+
+    /**
+     * 游标分页 - 从游标位置(账单月份, 房间ID)之后继续查询
+     */
+    @Query("SELECT e FROM Bill e WHERE " +
+           "(:roomId IS NULL OR e.roomId = :roomId) AND " +
+           "(:billMonth IS NULL OR e.billMonth = :billMonth) AND " +
+           "(:billStatus IS NULL OR e.billStatus = :billStatus) AND " +
+           "(e.billMonth < :cursorMonth OR (e.billMonth = :cursorMonth AND e.roomId > :cursorRoomId)) " +
+           "ORDER BY e.billMonth DESC, e.roomId ASC")
+    List<Bill> scrollAfter(
+            @Param("roomId") Long roomId,
+            @Param("billMonth") String billMonth,
+            @Param("billStatus") Bill.BillStatus billStatus,
+            @Param("cursorMonth") String cursorMonth,
+            @Param("cursorRoomId") Long cursorRoomId,
+            Pageable pageable);
+
+    /**
+     * 按筛选条件统计账单数量
+     */
+    @Query("SELECT COUNT(e) FROM Bill e WHERE " +
+           "(:roomId IS NULL OR e.roomId = :roomId) AND " +
+           "(:billMonth IS NULL OR e.billMonth = :billMonth) AND " +
+           "(:billStatus IS NULL OR e.billStatus = :billStatus)")
+    long countWithFilters(
+            @Param("roomId") Long roomId,
+            @Param("billMonth") String billMonth,
+            @Param("billStatus") Bill.BillStatus billStatus);
+
+    /**
+     * 流式导出账单（附带房号和楼宇名称），调用方需在只读事务中消费并关闭Stream
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e, r.roomNumber, b.buildingName FROM Bill e " +
+           "LEFT JOIN Room r ON r.id = e.roomId " +
+           "LEFT JOIN Building b ON b.id = r.buildingId " +
+           "WHERE (:roomId IS NULL OR e.roomId = :roomId) AND " +
+           "(:billMonth IS NULL OR e.billMonth = :billMonth) AND " +
+           "(:billStatus IS NULL OR e.billStatus = :billStatus) " +
+           "ORDER BY e.billMonth DESC, e.roomId ASC")
+    Stream<Object[]> streamForExport(
+            @Param("roomId") Long roomId,
+            @Param("billMonth") String billMonth,
+            @Param("billStatus") Bill.BillStatus billStatus);
+
     /**
      * 检查指定房间和月份是否已存在账单
      */
@@ -74,11 +149,69 @@ public interface BillRepository extends JpaRepository<Bill, Long> {
     @Query("SELECT COALESCE(SUM(e.totalAmount), 0) FROM Bill e WHERE e.billMonth = :billMonth")
     java.math.BigDecimal getTotalAmountByBillMonth(@Param("billMonth") String billMonth);
 
+    /**
+     * 按楼宇、状态聚合指定月份的账单（刷新月度汇总使用）
+     * 返回列：账单月份, 楼宇ID, 账单状态, 账单数, 房租, 押金, 电费, 水费, 热水费, 总金额
+     */
+    @Query("SELECT e.billMonth, r.buildingId, COALESCE(e.billStatus, 'GENERATED'), COUNT(e), " +
+           "COALESCE(SUM(e.rent), 0), COALESCE(SUM(e.deposit), 0), COALESCE(SUM(e.electricityAmount), 0), " +
+           "COALESCE(SUM(e.waterAmount), 0), COALESCE(SUM(e.hotWaterAmount), 0), COALESCE(SUM(e.totalAmount), 0) " +
+           "FROM Bill e JOIN Room r ON r.id = e.roomId " +
+           "WHERE e.billMonth = :billMonth AND r.buildingId IN :buildingIds " +
+           "GROUP BY e.billMonth, r.buildingId, COALESCE(e.billStatus, 'GENERATED')")
+    List<Object[]> aggregateByBuildingAndStatus(@Param("billMonth") String billMonth,
+                                                @Param("buildingIds") Collection<Long> buildingIds);
+
+    /**
+     * 按月份、楼宇、状态聚合全部账单（重建月度汇总使用），返回列同 aggregateByBuildingAndStatus
+     */
+    @Query("SELECT e.billMonth, r.buildingId, COALESCE(e.billStatus, 'GENERATED'), COUNT(e), " +
+           "COALESCE(SUM(e.rent), 0), COALESCE(SUM(e.deposit), 0), COALESCE(SUM(e.electricityAmount), 0), " +
+           "COALESCE(SUM(e.waterAmount), 0), COALESCE(SUM(e.hotWaterAmount), 0), COALESCE(SUM(e.totalAmount), 0) " +
+           "FROM Bill e JOIN Room r ON r.id = e.roomId " +
+           "GROUP BY e.billMonth, r.buildingId, COALESCE(e.billStatus, 'GENERATED')")
+    List<Object[]> aggregateAllByMonthBuildingAndStatus();
+
+    /**
+     * 按楼宇聚合指定月份账单的水电用量、收入和成本（成本 = 用量 × 楼宇成本单价，不含已取消账单）
+     * 返回列：楼宇ID, 楼宇名称, 账单数, 电用量, 电费收入, 电成本, 水用量, 水费收入, 水成本, 热水用量, 热水费收入, 热水成本
+     */
+    @Query("SELECT r.buildingId, b.buildingName, COUNT(e), " +
+           "COALESCE(SUM(e.electricityUsage), 0), COALESCE(SUM(e.electricityAmount), 0), " +
+           "COALESCE(SUM(e.electricityUsage * COALESCE(b.electricityCost, 0)), 0), " +
+           "COALESCE(SUM(e.waterUsage), 0), COALESCE(SUM(e.waterAmount), 0), " +
+           "COALESCE(SUM(e.waterUsage * COALESCE(b.waterCost, 0)), 0), " +
+           "COALESCE(SUM(e.hotWaterUsage), 0), COALESCE(SUM(e.hotWaterAmount), 0), " +
+           "COALESCE(SUM(e.hotWaterUsage * COALESCE(b.hotWaterCost, 0)), 0) " +
+           "FROM Bill e JOIN Room r ON r.id = e.roomId JOIN Building b ON b.id = r.buildingId " +
+           "WHERE e.billMonth = :billMonth AND COALESCE(e.billStatus, 'GENERATED') <> 'CANCELLED' " +
+           "GROUP BY r.buildingId, b.buildingName " +
+           "ORDER BY r.buildingId")
+    List<Object[]> aggregateUtilityMarginByBuilding(@Param("billMonth") String billMonth);
+
+    /**
+     * 查询指定房间有账单的月份
+     */
+    @Query("SELECT DISTINCT e.billMonth FROM Bill e WHERE e.roomId = :roomId")
+    List<String> findBillMonthsByRoomId(@Param("roomId") Long roomId);
+
     /**
      * 统计指定房间的账单数量
      */
     long countByRoomId(Long roomId);
 
+    /**
+     * 查询指定月份已有账单的房间ID（批量生成时用于跳过）
+     */
+    @Query("SELECT e.roomId FROM Bill e WHERE e.billMonth = :billMonth")
+    List<Long> findRoomIdsByBillMonth(@Param("billMonth") String billMonth);
+
+    /**
+     * 查询已出租房间中已有任意账单的房间ID（批量生成时用于判断是否收取押金）
+     */
+    @Query("SELECT DISTINCT e.roomId FROM Bill e, Room r WHERE e.roomId = r.id AND r.rentalStatus = 'RENTED'")
+    List<Long> findRentedRoomIdsWithBills();
+
     /**
      * 删除指定房间的所有账单
      */
@@ -1,11 +1,14 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Building;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,6 +18,17 @@ public interface BuildingRepository extends JpaRepository<Building, Long> {
 
     boolean existsByBuildingName(String buildingName);
 
-    @Query("SELECT b FROM Building b WHERE b.buildingName LIKE %:keyword% OR b.landlordName LIKE %:keyword%")
-    List<Building> searchBuildings(@Param("keyword") String keyword);
+    /**
+     * 搜索索引构建使用，返回 [id, buildingName, landlordName]
+     */
+    @Query("SELECT b.id, b.buildingName, b.landlordName FROM Building b")
+    List<Object[]> findSearchFields();
+
+    /**
+     * 按ID顺序对楼宇行加写锁（SELECT ... FOR UPDATE），持有到事务结束，
+     * 用于串行化同一楼宇的账单汇总刷新
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Building b WHERE b.id IN :ids ORDER BY b.id")
+    List<Building> lockByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.DailyUsageAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 房间每日用量汇总Repository
+ */
+@Repository
+public interface DailyUsageAggregateRepository extends JpaRepository<DailyUsageAggregate, Long> {
+
+    /**
+     * 汇总房间在日期范围内的用量
+     * 返回列：电用量, 水用量, 热水用量, 房间数, 抄表记录数
+     */
+    @Query("SELECT COALESCE(SUM(e.electricityUsage), 0), COALESCE(SUM(e.waterUsage), 0), " +
+           "COALESCE(SUM(e.hotWaterUsage), 0), COUNT(DISTINCT e.roomId), COALESCE(SUM(e.readingCount), 0) " +
+           "FROM DailyUsageAggregate e " +
+           "WHERE e.roomId = :roomId AND e.usageDate BETWEEN :startDate AND :endDate")
+    List<Object[]> sumByRoom(@Param("roomId") Long roomId,
+                             @Param("startDate") LocalDate startDate,
+                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * 汇总楼宇在日期范围内的用量，返回列同 sumByRoom
+     */
+    @Query("SELECT COALESCE(SUM(e.electricityUsage), 0), COALESCE(SUM(e.waterUsage), 0), " +
+           "COALESCE(SUM(e.hotWaterUsage), 0), COUNT(DISTINCT e.roomId), COALESCE(SUM(e.readingCount), 0) " +
+           "FROM DailyUsageAggregate e " +
+           "WHERE e.buildingId = :buildingId AND e.usageDate BETWEEN :startDate AND :endDate")
+    List<Object[]> sumByBuilding(@Param("buildingId") Long buildingId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate);
+
+    /**
+     * 删除日期范围内的汇总行（房间ID为空时删除全部房间），立即执行，先于随后的批量插入
+     */
+    @Modifying
+    @Query("DELETE FROM DailyUsageAggregate e WHERE e.usageDate BETWEEN :startDate AND :endDate " +
+           "AND (:roomId IS NULL OR e.roomId = :roomId)")
+    int deleteRange(@Param("roomId") Long roomId,
+                    @Param("startDate") LocalDate startDate,
+                    @Param("endDate") LocalDate endDate);
+
+    /**
+     * 删除房间的全部汇总行
+     */
+    @Modifying
+    @Query("DELETE FROM DailyUsageAggregate e WHERE e.roomId = :roomId")
+    int deleteByRoomId(@Param("roomId") Long roomId);
+
+    /**
+     * 房间改换楼宇后同步冗余的楼宇ID
+     */
+    @Modifying
+    @Query("UPDATE DailyUsageAggregate e SET e.buildingId = :buildingId WHERE e.roomId = :roomId")
+    int updateBuildingIdByRoomId(@Param("roomId") Long roomId, @Param("buildingId") Long buildingId);
+}
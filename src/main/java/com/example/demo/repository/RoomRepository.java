@@ -1,16 +1,26 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
+    /**
+     * 房间、楼宇、创建者用户名的联合查询，一条SQL返回列表所需的全部信息
+     */
+    String ROOM_WITH_BUILDING_AND_CREATOR = "SELECT r, b, u.username FROM Room r " +
+            "LEFT JOIN Building b ON b.id = r.buildingId " +
+            "LEFT JOIN User u ON u.id = r.createdBy ";
+
     /**
      * 根据楼宇ID查找房间
      */
@@ -43,10 +53,16 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     Room findByRoomNumberAndBuildingId(String roomNumber, Long buildingId);
 
     /**
-     * 搜索房间（根据房号）
+     * 查询楼宇下的房间ID
+     */
+    @Query("SELECT r.id FROM Room r WHERE r.buildingId = :buildingId")
+    List<Long> findIdsByBuildingId(@Param("buildingId") Long buildingId);
+
+    /**
+     * 搜索索引构建使用，返回 [id, roomNumber, buildingId]
      */
-    @Query("SELECT r FROM Room r WHERE r.roomNumber LIKE %:keyword%")
-    List<Room> searchRooms(@Param("keyword") String keyword);
+    @Query("SELECT r.id, r.roomNumber, r.buildingId FROM Room r")
+    List<Object[]> findSearchFields();
 
     /**
      * 根据楼宇ID列表查找房间
@@ -54,6 +70,37 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     @Query("SELECT r FROM Room r WHERE r.buildingId IN :buildingIds")
     List<Room> findByBuildingIdIn(@Param("buildingIds") List<Long> buildingIds);
 
+    /**
+     * 查询所有房间及其楼宇和创建者用户名，返回 [Room, Building, username]
+     */
+    @Query(ROOM_WITH_BUILDING_AND_CREATOR + "ORDER BY r.id ASC")
+    List<Object[]> findAllWithBuildingAndCreator();
+
+    /**
+     * 分页查询房间及其楼宇和创建者用户名（可按楼宇过滤），返回 [Room, Building, username]
+     */
+    @Query(value = ROOM_WITH_BUILDING_AND_CREATOR + "WHERE (:buildingId IS NULL OR r.buildingId = :buildingId)",
+           countQuery = "SELECT COUNT(r) FROM Room r WHERE (:buildingId IS NULL OR r.buildingId = :buildingId)")
+    Page<Object[]> findPageWithBuildingAndCreator(@Param("buildingId") Long buildingId, Pageable pageable);
+
+    /**
+     * 根据楼宇ID列表查询房间及其楼宇和创建者用户名，返回 [Room, Building, username]
+     */
+    @Query(ROOM_WITH_BUILDING_AND_CREATOR + "WHERE r.buildingId IN :buildingIds ORDER BY r.id ASC")
+    List<Object[]> findByBuildingIdInWithBuildingAndCreator(@Param("buildingIds") List<Long> buildingIds);
+
+    /**
+     * 根据房间ID列表查询房间及其楼宇和创建者用户名，返回 [Room, Building, username]
+     */
+    @Query(ROOM_WITH_BUILDING_AND_CREATOR + "WHERE r.id IN :ids")
+    List<Object[]> findByIdInWithBuildingAndCreator(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 返回给定ID中实际存在的房间ID（批量导入时一次校验）
+     */
+    @Query("SELECT r.id FROM Room r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
     /**
      * 统计指定楼宇的房间数量
      */
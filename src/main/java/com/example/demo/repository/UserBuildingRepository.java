@@ -20,6 +20,9 @@ public interface UserBuildingRepository extends JpaRepository<UserBuilding, Long
 
     boolean existsByUserIdAndBuildingId(Long userId, Long buildingId);
 
+    @Query("SELECT ub.buildingId FROM UserBuilding ub WHERE ub.userId = :userId")
+    List<Long> findBuildingIdsByUserId(@Param("userId") Long userId);
+
     Optional<UserBuilding> findByUserIdAndBuildingId(Long userId, Long buildingId);
 
     @Modifying
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,8 +28,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.status = 'ACTIVE'")
     List<User> findAllActiveUsers();
     
-    @Query("SELECT u FROM User u WHERE u.username LIKE %:keyword% OR u.email LIKE %:keyword% OR u.fullName LIKE %:keyword% OR u.phone LIKE %:keyword%")
-    List<User> searchUsers(@Param("keyword") String keyword);
+    /**
+     * 搜索索引构建使用，返回 [id, username, fullName, email, phone]，不加载角色集合
+     */
+    @Query("SELECT u.id, u.username, u.fullName, u.email, u.phone FROM User u")
+    List<Object[]> findSearchFields();
+    
+    /**
+     * 批量查询用户名，返回 [id, username]，不加载角色集合
+     */
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT COUNT(u) FROM User u WHERE u.status = 'ACTIVE'")
     long countActiveUsers();
@@ -1,16 +1,24 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.UtilityReading;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * 水电表记录Repository
@@ -18,6 +26,24 @@ import java.util.Optional;
 @Repository
 public interface UtilityReadingRepository extends JpaRepository<UtilityReading, Long> {
 
+    /**
+     * 游标分页的公共过滤条件
+     */
+    String SCROLL_CONDITIONS = "FROM UtilityReading ur " +
+           "LEFT JOIN ur.room r " +
+           "WHERE (:roomId IS NULL OR ur.roomId = :roomId) " +
+           "AND (:buildingId IS NULL OR r.buildingId = :buildingId) " +
+           "AND (:startDate IS NULL OR ur.readingDate >= :startDate) " +
+           "AND (:endDate IS NULL OR ur.readingDate <= :endDate) " +
+           "AND (:meterReader IS NULL OR ur.meterReader LIKE %:meterReader%) " +
+           "AND (:readingType IS NULL OR ur.readingType = :readingType) " +
+           "AND (:readingStatus IS NULL OR ur.readingStatus = :readingStatus) ";
+
+    /**
+     * 游标分页的排序（与 idx_reading_date_time_id 索引一致）
+     */
+    String SCROLL_ORDER = "ORDER BY ur.readingDate DESC, ur.readingTime DESC, ur.id DESC";
+
     /**
      * 根据房间ID查找记录
      */
@@ -77,38 +103,115 @@ public interface UtilityReadingRepository extends JpaRepository<UtilityReading,
             Pageable pageable);
 
     /**
-     * 获取房间的用量统计
+     * 游标分页 - 第一页
      */
-    @Query("SELECT " +
-           "SUM(ur.electricityUsage) as totalElectricityUsage, " +
-           "SUM(ur.waterUsage) as totalWaterUsage, " +
-           "SUM(ur.hotWaterUsage) as totalHotWaterUsage, " +
-           "COUNT(*) as readingCount " +
-           "FROM UtilityReading ur " +
-           "WHERE ur.roomId = :roomId " +
-           "AND ur.readingDate BETWEEN :startDate AND :endDate " +
-           "AND ur.readingStatus = 'CONFIRMED'")
-    Object[] getUsageStatistics(@Param("roomId") Long roomId, 
-                               @Param("startDate") LocalDate startDate, 
-                               @Param("endDate") LocalDate endDate);
+    @Query("SELECT ur " + SCROLL_CONDITIONS + SCROLL_ORDER)
+    List<UtilityReading> scrollFirst(
+            @Param("roomId") Long roomId,
+            @Param("buildingId") Long buildingId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("meterReader") String meterReader,
+            @Param("readingType") UtilityReading.ReadingType readingType,
+            @Param("readingStatus") UtilityReading.ReadingStatus readingStatus,
+            Pageable pageable);
 
     /**
-     * 获取楼宇的用量统计
+     * 游标分页 - 从游标位置(抄表日期, 抄表时间, ID)之后继续查询
      */
-    @Query("SELECT " +
-           "SUM(ur.electricityUsage) as totalElectricityUsage, " +
-           "SUM(ur.waterUsage) as totalWaterUsage, " +
-           "SUM(ur.hotWaterUsage) as totalHotWaterUsage, " +
-           "COUNT(DISTINCT ur.roomId) as roomCount, " +
-           "COUNT(*) as readingCount " +
-           "FROM UtilityReading ur " +
+    @Query("SELECT ur " + SCROLL_CONDITIONS +
+           "AND (ur.readingDate < :cursorDate " +
+           "     OR (ur.readingDate = :cursorDate AND ur.readingTime < :cursorTime) " +
+           "     OR (ur.readingDate = :cursorDate AND ur.readingTime = :cursorTime AND ur.id < :cursorId)) " +
+           SCROLL_ORDER)
+    List<UtilityReading> scrollAfter(
+            @Param("roomId") Long roomId,
+            @Param("buildingId") Long buildingId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("meterReader") String meterReader,
+            @Param("readingType") UtilityReading.ReadingType readingType,
+            @Param("readingStatus") UtilityReading.ReadingStatus readingStatus,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * 游标分页 - 统计总数（可选）
+     */
+    @Query("SELECT COUNT(ur) " + SCROLL_CONDITIONS)
+    long countByConditions(
+            @Param("roomId") Long roomId,
+            @Param("buildingId") Long buildingId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("meterReader") String meterReader,
+            @Param("readingType") UtilityReading.ReadingType readingType,
+            @Param("readingStatus") UtilityReading.ReadingStatus readingStatus);
+
+    /**
+     * 流式导出抄表记录（附带房号和楼宇名称），调用方需在只读事务中消费并关闭Stream
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ur, r.roomNumber, b.buildingName FROM UtilityReading ur " +
            "LEFT JOIN ur.room r " +
-           "WHERE r.buildingId = :buildingId " +
+           "LEFT JOIN Building b ON b.id = r.buildingId " +
+           "WHERE (:roomId IS NULL OR ur.roomId = :roomId) " +
+           "AND (:buildingId IS NULL OR r.buildingId = :buildingId) " +
+           "AND (:startDate IS NULL OR ur.readingDate >= :startDate) " +
+           "AND (:endDate IS NULL OR ur.readingDate <= :endDate) " +
+           "AND (:meterReader IS NULL OR ur.meterReader LIKE %:meterReader%) " +
+           "AND (:readingType IS NULL OR ur.readingType = :readingType) " +
+           "AND (:readingStatus IS NULL OR ur.readingStatus = :readingStatus) " +
+           SCROLL_ORDER)
+    Stream<Object[]> streamForExport(
+            @Param("roomId") Long roomId,
+            @Param("buildingId") Long buildingId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("meterReader") String meterReader,
+            @Param("readingType") UtilityReading.ReadingType readingType,
+            @Param("readingStatus") UtilityReading.ReadingStatus readingStatus);
+
+    /**
+     * 按房间、日期聚合已确认抄表记录的用量（刷新每日用量汇总使用，房间ID为空时聚合全部房间）
+     * 返回列：房间ID, 楼宇ID, 日期, 电用量, 水用量, 热水用量, 记录数。调用方需在事务中消费并关闭Stream
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ur.roomId, r.buildingId, ur.readingDate, COALESCE(SUM(ur.electricityUsage), 0), " +
+           "COALESCE(SUM(ur.waterUsage), 0), COALESCE(SUM(ur.hotWaterUsage), 0), COUNT(ur) " +
+           "FROM UtilityReading ur JOIN Room r ON r.id = ur.roomId " +
+           "WHERE ur.readingStatus = 'CONFIRMED' " +
            "AND ur.readingDate BETWEEN :startDate AND :endDate " +
-           "AND ur.readingStatus = 'CONFIRMED'")
-    Object[] getBuildingUsageStatistics(@Param("buildingId") Long buildingId, 
-                                       @Param("startDate") LocalDate startDate, 
-                                       @Param("endDate") LocalDate endDate);
+           "AND (:roomId IS NULL OR ur.roomId = :roomId) " +
+           "GROUP BY ur.roomId, r.buildingId, ur.readingDate")
+    Stream<Object[]> streamDailyUsage(@Param("roomId") Long roomId,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询房间在指定日期之后的第一条抄表记录日期（该记录的用量依赖于之前的读数）
+     */
+    @Query("SELECT MIN(ur.readingDate) FROM UtilityReading ur WHERE ur.roomId = :roomId AND ur.readingDate > :readingDate")
+    LocalDate findNextReadingDate(@Param("roomId") Long roomId, @Param("readingDate") LocalDate readingDate);
+
+    /**
+     * 查询房间在指定日期之前最近的抄表记录用量（按日期倒序，异常检测预热使用）
+     * 返回列：日期, 用电量, 用水量, 状态
+     */
+    @Query("SELECT ur.readingDate, ur.electricityUsage, ur.waterUsage, ur.readingStatus FROM UtilityReading ur " +
+           "WHERE ur.roomId = :roomId AND ur.readingDate < :readingDate " +
+           "ORDER BY ur.readingDate DESC")
+    List<Object[]> findRecentUsage(@Param("roomId") Long roomId,
+                                   @Param("readingDate") LocalDate readingDate,
+                                   Pageable pageable);
 
     /**
      * 获取待确认的抄表记录数量
@@ -127,17 +230,23 @@ public interface UtilityReadingRepository extends JpaRepository<UtilityReading,
     boolean existsByRoomIdAndReadingDate(Long roomId, LocalDate readingDate);
 
     /**
-     * 获取房间的历史读数趋势
+     * 流式获取房间的历史读数趋势（按日期正序），调用方需在只读事务中消费并关闭Stream
+     * 返回列：日期, 电表读数, 水表读数, 热水表读数, 用电量, 用水量, 热水用量
      */
-    @Query("SELECT ur.readingDate, ur.electricityReading, ur.waterReading, ur.hotWaterReading " +
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ur.readingDate, ur.electricityReading, ur.waterReading, ur.hotWaterReading, " +
+           "ur.electricityUsage, ur.waterUsage, ur.hotWaterUsage " +
            "FROM UtilityReading ur " +
            "WHERE ur.roomId = :roomId " +
            "AND ur.readingDate BETWEEN :startDate AND :endDate " +
            "AND ur.readingStatus = 'CONFIRMED' " +
            "ORDER BY ur.readingDate ASC")
-    List<Object[]> getReadingTrend(@Param("roomId") Long roomId, 
-                                  @Param("startDate") LocalDate startDate, 
-                                  @Param("endDate") LocalDate endDate);
+    Stream<Object[]> streamReadingTrend(@Param("roomId") Long roomId,
+                                        @Param("startDate") LocalDate startDate,
+                                        @Param("endDate") LocalDate endDate);
 
     /**
      * 获取异常读数记录（用量异常高或异常低）
@@ -153,6 +262,47 @@ public interface UtilityReadingRepository extends JpaRepository<UtilityReading,
                                              @Param("electricityThreshold") Double electricityThreshold,
                                              @Param("waterThreshold") Double waterThreshold);
 
+    /**
+     * 查询所有已出租房间在指定日期范围内的抄表记录（批量生成账单使用）
+     */
+    @Query("SELECT ur FROM UtilityReading ur " +
+           "JOIN ur.room r " +
+           "WHERE r.rentalStatus = 'RENTED' " +
+           "AND ur.readingDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY ur.roomId ASC, ur.readingDate DESC, ur.readingTime DESC")
+    List<UtilityReading> findRentedRoomReadingsBetween(@Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询给定房间在日期范围内已有记录的(房间ID, 抄表日期)，批量导入时用于一次性判重
+     */
+    @Query("SELECT ur.roomId, ur.readingDate FROM UtilityReading ur " +
+           "WHERE ur.roomId IN :roomIds AND ur.readingDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findRoomDatePairs(@Param("roomIds") Collection<Long> roomIds,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询多个房间在日期范围内的抄表记录（智能表批量写入时用于合并到已有记录）
+     */
+    List<UtilityReading> findByRoomIdInAndReadingDateBetween(Collection<Long> roomIds,
+                                                           LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 计算上次读数所需的历史记录：给定房间在日期范围内的记录，
+     * 加上范围之前最近的一条和范围之后最近的一条（均走 room_id + reading_date 索引）
+     */
+    @Query("SELECT ur FROM UtilityReading ur " +
+           "WHERE ur.roomId IN :roomIds " +
+           "AND ((ur.readingDate BETWEEN :startDate AND :endDate) " +
+           "     OR ur.readingDate = (SELECT MAX(p.readingDate) FROM UtilityReading p " +
+           "                          WHERE p.roomId = ur.roomId AND p.readingDate < :startDate) " +
+           "     OR ur.readingDate = (SELECT MIN(n.readingDate) FROM UtilityReading n " +
+           "                          WHERE n.roomId = ur.roomId AND n.readingDate > :endDate))")
+    List<UtilityReading> findUsageHistory(@Param("roomIds") Collection<Long> roomIds,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
     /**
      * 统计指定房间的抄表记录数量
      */
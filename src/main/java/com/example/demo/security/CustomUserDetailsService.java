@@ -3,6 +3,7 @@ package com.example.demo.security;
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,9 +25,25 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
         
+        return buildUserDetails(user, user.getPassword());
+    }
+
+    /**
+     * 加载JWT请求使用的用户主体（短TTL缓存，见 app.cache.specs.userPrincipals）
+     * 不包含密码，仅用于已签名token的请求鉴权；用户更新或删除时由UserService失效
+     */
+    @Cacheable(value = "userPrincipals", key = "#username")
+    public UserDetails loadUserPrincipal(String username) throws UsernameNotFoundException {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + username));
+
+        return buildUserDetails(user, "");
+    }
+
+    private UserDetails buildUserDetails(User user, String password) {
         return org.springframework.security.core.userdetails.User.builder()
                 .username(user.getUsername())
-                .password(user.getPassword())
+                .password(password)
                 .authorities(user.getRoles().stream()
                         .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
                         .collect(Collectors.toList()))
@@ -36,4 +53,4 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .disabled(user.getStatus() == User.UserStatus.INACTIVE)
                 .build();
     }
-} 
\ No newline at end of file
+} 
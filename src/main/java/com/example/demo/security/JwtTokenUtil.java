@@ -2,6 +2,7 @@ package com.example.demo.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +28,23 @@ public class JwtTokenUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    /**
+     * 签名密钥和解析器只构建一次（JwtParser不可变，线程安全）
+     */
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
     
     public String extractUsername(String token) {
@@ -45,15 +61,19 @@ public class JwtTokenUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+    
+    /**
+     * 校验签名并解析token，返回的claims可在同一请求内复用，避免重复解析
+     * @throws JwtException 签名无效、格式错误或已过期
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
     
     public String generateToken(UserDetails userDetails) {
@@ -77,16 +97,20 @@ public class JwtTokenUtil {
     }
     
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(extractAllClaims(token), userDetails);
+    }
+    
+    /**
+     * 使用已解析的claims校验token
+     */
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username.equals(userDetails.getUsername()) && !isTokenExpired(claims));
     }
     
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("JWT token validation failed: {}", e.getMessage());
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UtilityMarginDto;
+import com.example.demo.repository.BillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 账单分析Service
+ */
+@Service
+public class BillAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillAnalyticsService.class);
+
+    @Autowired
+    private BillRepository billRepository;
+
+    /**
+     * 按楼宇计算指定月份的水电收入、成本和利润
+     * 聚合在数据库中完成；已结束的月份结果写入缓存，当月数据仍在变化不缓存。
+     * 已结束月份的账单被修改（BillRollupService）或楼宇成本单价变更时失效。
+     */
+    @Cacheable(value = "utilityMargins", key = "#billMonth",
+               condition = "#billMonth < T(java.time.YearMonth).now().toString()")
+    @Transactional(readOnly = true)
+    public List<UtilityMarginDto> getUtilityMargins(String billMonth) {
+        try {
+            YearMonth.parse(billMonth);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("账单月份格式应为YYYY-MM");
+        }
+        log.info("计算 {} 月份水电利润", billMonth);
+
+        List<UtilityMarginDto> margins = new ArrayList<>();
+        for (Object[] row : billRepository.aggregateUtilityMarginByBuilding(billMonth)) {
+            UtilityMarginDto dto = new UtilityMarginDto();
+            dto.setBillMonth(billMonth);
+            dto.setBuildingId((Long) row[0]);
+            dto.setBuildingName((String) row[1]);
+            dto.setBillCount((Long) row[2]);
+
+            dto.setElectricityUsage((BigDecimal) row[3]);
+            dto.setElectricityRevenue((BigDecimal) row[4]);
+            dto.setElectricityCost(money(row[5]));
+            dto.setElectricityMargin(dto.getElectricityRevenue().subtract(dto.getElectricityCost()));
+
+            dto.setWaterUsage((BigDecimal) row[6]);
+            dto.setWaterRevenue((BigDecimal) row[7]);
+            dto.setWaterCost(money(row[8]));
+            dto.setWaterMargin(dto.getWaterRevenue().subtract(dto.getWaterCost()));
+
+            dto.setHotWaterUsage((BigDecimal) row[9]);
+            dto.setHotWaterRevenue((BigDecimal) row[10]);
+            dto.setHotWaterCost(money(row[11]));
+            dto.setHotWaterMargin(dto.getHotWaterRevenue().subtract(dto.getHotWaterCost()));
+
+            dto.setTotalRevenue(dto.getElectricityRevenue().add(dto.getWaterRevenue()).add(dto.getHotWaterRevenue()));
+            dto.setTotalCost(dto.getElectricityCost().add(dto.getWaterCost()).add(dto.getHotWaterCost()));
+            dto.setTotalMargin(dto.getTotalRevenue().subtract(dto.getTotalCost()));
+            if (dto.getTotalRevenue().signum() != 0) {
+                dto.setMarginRate(dto.getTotalMargin().divide(dto.getTotalRevenue(), 4, RoundingMode.HALF_UP));
+            }
+            margins.add(dto);
+        }
+        return margins;
+    }
+
+    private static BigDecimal money(Object value) {
+        return ((BigDecimal) value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.event.UtilityReadingChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 抄表记录变更后异步重算受影响的账单
+ *
+ * 在抄表事务提交后执行，只处理对应房间、对应月份中尚未发送的账单（已生成、已确认）。
+ * 重算期间账单被并发修改（如标记为已发送）时乐观锁冲突，重新加载后重试，
+ * 状态已不符合条件的账单不再重算。
+ */
+@Component
+public class BillRecalculationListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BillRecalculationListener.class);
+
+    /**
+     * 乐观锁冲突时的最大尝试次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private BillService billService;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUtilityReadingChanged(UtilityReadingChangedEvent event) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                int updated = billService.recalculateBills(event.getRoomId(), event.getAffectedBillMonths());
+                if (updated > 0) {
+                    log.info("抄表记录变更，重算房间 {} 的账单 {} 张，月份: {}",
+                            event.getRoomId(), updated, event.getAffectedBillMonths());
+                }
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("重算账单失败，账单持续被并发修改，已尝试 {} 次: {}", MAX_ATTEMPTS, event, e);
+                    return;
+                }
+                log.info("重算账单时账单被并发修改，第 {} 次重试: {}", attempt, event);
+            } catch (RuntimeException e) {
+                log.error("重算账单失败: {}", event, e);
+                return;
+            }
+        }
+    }
+}
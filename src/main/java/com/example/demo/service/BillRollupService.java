@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReplicaRead;
+import com.example.demo.dto.MonthlyRevenueRollupDto;
+import com.example.demo.entity.Bill;
+import com.example.demo.entity.BillMonthlyRollup;
+import com.example.demo.entity.Building;
+import com.example.demo.repository.BillMonthlyRollupRepository;
+import com.example.demo.repository.BillRepository;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.RoomRepository;
+import com.example.demo.util.CacheHelper;
+import com.example.demo.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 账单月度汇总Service
+ *
+ * 汇总表按 月份 × 楼宇 × 状态 保存金额合计。账单写入后在同一事务内只重新聚合受影响的
+ * 月份和楼宇（走 bill_month 索引），看板查询直接读汇总表。
+ * 重新聚合前先按ID顺序锁住涉及的楼宇行：同一楼宇的并发刷新排队到前一个事务提交之后，
+ * 此时的聚合查询能看到对方已提交的账单和汇总行，既不会遗漏对方的账单，也不会重复插入汇总行。
+ */
+@Service
+public class BillRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillRollupService.class);
+
+    @Autowired
+    private BillMonthlyRollupRepository billMonthlyRollupRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BuildingRepository buildingRepository;
+
+    @Autowired
+    private CacheHelper cacheHelper;
+
+    /**
+     * 账单写入后刷新其所属月份和楼宇的汇总
+     */
+    @Transactional
+    public void refreshForBills(Collection<Bill> bills) {
+        Set<Long> roomIds = bills.stream().map(Bill::getRoomId).collect(Collectors.toSet());
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> roomBuildings = new HashMap<>();
+        roomRepository.findAllById(roomIds).forEach(room -> roomBuildings.put(room.getId(), room.getBuildingId()));
+
+        Map<String, Set<Long>> buildingIdsByMonth = new HashMap<>();
+        for (Bill bill : bills) {
+            Long buildingId = roomBuildings.get(bill.getRoomId());
+            if (buildingId != null) {
+                buildingIdsByMonth.computeIfAbsent(bill.getBillMonth(), m -> new HashSet<>()).add(buildingId);
+            }
+        }
+        // 涉及多个月份时先一次性按ID顺序加锁，避免逐月加锁顺序不同造成死锁
+        lockBuildings(new HashSet<>(roomBuildings.values()));
+        buildingIdsByMonth.forEach(this::refresh);
+    }
+
+    /**
+     * 重新聚合指定月份、指定楼宇的汇总行：更新已有行、插入新行、删除已无账单的行
+     */
+    @Transactional
+    public void refresh(String billMonth, Collection<Long> buildingIds) {
+        if (buildingIds.isEmpty()) {
+            return;
+        }
+        lockBuildings(buildingIds);
+
+        // 查询前 Hibernate 会自动flush当前事务中未写出的账单变更
+        Map<String, BillMonthlyRollup> existing = new HashMap<>();
+        for (BillMonthlyRollup rollup : billMonthlyRollupRepository.findByBillMonthAndBuildingIdIn(billMonth, buildingIds)) {
+            existing.put(rollupKey(rollup.getBuildingId(), rollup.getBillStatus()), rollup);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BillMonthlyRollup> changed = new ArrayList<>();
+        for (Object[] row : billRepository.aggregateByBuildingAndStatus(billMonth, buildingIds)) {
+            Long buildingId = (Long) row[1];
+            String billStatus = (String) row[2];
+            BillMonthlyRollup rollup = existing.remove(rollupKey(buildingId, billStatus));
+            if (rollup == null) {
+                rollup = new BillMonthlyRollup(billMonth, buildingId, billStatus);
+            }
+            applyAggregate(rollup, row, now);
+            changed.add(rollup);
+        }
+
+        billMonthlyRollupRepository.saveAll(changed);
+        billMonthlyRollupRepository.deleteAll(existing.values());
+
+        // 已结束月份的利润分析结果按月缓存，账单变化时一并失效；
+        // 在提交后失效，否则提交前的读请求会把旧结果重新写入缓存
+        TransactionCallbacks.afterCommit(() -> cacheHelper.evict("utilityMargins", billMonth));
+    }
+
+    /**
+     * 房间删除或改换楼宇后，刷新该房间账单涉及的月份在指定楼宇下的汇总
+     */
+    @Transactional
+    public void refreshForMonths(Collection<String> billMonths, Collection<Long> buildingIds) {
+        lockBuildings(buildingIds);
+        for (String billMonth : billMonths) {
+            refresh(billMonth, buildingIds);
+        }
+    }
+
+    /**
+     * 根据账单表全量重建汇总表（初始化或数据修复时使用）
+     */
+    @Transactional
+    public int rebuildAll() {
+        long startTime = System.currentTimeMillis();
+        billMonthlyRollupRepository.deleteAllInBatch();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BillMonthlyRollup> rollups = new ArrayList<>();
+        for (Object[] row : billRepository.aggregateAllByMonthBuildingAndStatus()) {
+            BillMonthlyRollup rollup = new BillMonthlyRollup((String) row[0], (Long) row[1], (String) row[2]);
+            applyAggregate(rollup, row, now);
+            rollups.add(rollup);
+        }
+        billMonthlyRollupRepository.saveAll(rollups);
+
+        log.info("账单月度汇总重建完成，共 {} 行，耗时: {} ms", rollups.size(), System.currentTimeMillis() - startTime);
+        return rollups.size();
+    }
+
+    /**
+     * 查询看板月度营收汇总
+     */
+    @ReplicaRead
+    public List<MonthlyRevenueRollupDto> getMonthlyRevenue(String fromMonth, String toMonth, Long buildingId) {
+        List<BillMonthlyRollup> rollups = billMonthlyRollupRepository.findForDashboard(fromMonth, toMonth, buildingId);
+        Set<Long> buildingIds = rollups.stream().map(BillMonthlyRollup::getBuildingId).collect(Collectors.toSet());
+        Map<Long, String> buildingNames = buildingRepository.findAllById(buildingIds).stream()
+                .collect(Collectors.toMap(Building::getId, Building::getBuildingName));
+
+        return rollups.stream()
+                .map(rollup -> convertToDto(rollup, buildingNames.get(rollup.getBuildingId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 锁住楼宇行直到事务结束，同一楼宇的汇总刷新串行执行
+     */
+    private void lockBuildings(Collection<Long> buildingIds) {
+        if (!buildingIds.isEmpty()) {
+            buildingRepository.lockByIdIn(buildingIds);
+        }
+    }
+
+    private static void applyAggregate(BillMonthlyRollup rollup, Object[] row, LocalDateTime now) {
+        rollup.setBillCount((Long) row[3]);
+        rollup.setRent((BigDecimal) row[4]);
+        rollup.setDeposit((BigDecimal) row[5]);
+        rollup.setElectricityAmount((BigDecimal) row[6]);
+        rollup.setWaterAmount((BigDecimal) row[7]);
+        rollup.setHotWaterAmount((BigDecimal) row[8]);
+        rollup.setTotalAmount((BigDecimal) row[9]);
+        rollup.setUpdatedAt(now);
+    }
+
+    private static String rollupKey(Long buildingId, String billStatus) {
+        return buildingId + "|" + billStatus;
+    }
+
+    private MonthlyRevenueRollupDto convertToDto(BillMonthlyRollup rollup, String buildingName) {
+        MonthlyRevenueRollupDto dto = new MonthlyRevenueRollupDto();
+        dto.setBillMonth(rollup.getBillMonth());
+        dto.setBuildingId(rollup.getBuildingId());
+        dto.setBuildingName(buildingName);
+        dto.setBillStatus(rollup.getBillStatus());
+        dto.setBillCount(rollup.getBillCount());
+        dto.setRent(rollup.getRent());
+        dto.setDeposit(rollup.getDeposit());
+        dto.setElectricityAmount(rollup.getElectricityAmount());
+        dto.setWaterAmount(rollup.getWaterAmount());
+        dto.setHotWaterAmount(rollup.getHotWaterAmount());
+        dto.setTotalAmount(rollup.getTotalAmount());
+        dto.setUpdatedAt(rollup.getUpdatedAt());
+        return dto;
+    }
+}
@@ -1,30 +1,55 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ReplicaRead;
 import com.example.demo.entity.Bill;
 import com.example.demo.entity.Building;
 import com.example.demo.entity.Room;
 import com.example.demo.entity.UtilityReading;
+import com.example.demo.dto.BatchBillGenerationResult;
 import com.example.demo.dto.BillDto;
+import com.example.demo.dto.CursorPage;
 import com.example.demo.repository.BillRepository;
 import com.example.demo.repository.BuildingRepository;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.UtilityReadingRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CsvUtils;
+import com.example.demo.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 账单Service
@@ -50,10 +75,15 @@ public class BillService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BillRollupService billRollupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * 为指定房间生成账单
      */
-    @CacheEvict(value = {"bills", "rooms"}, allEntries = true)
     public BillDto generateBillForRoom(Long roomId, String billMonth, Long userId) {
         log.info("为房间 {} 生成 {} 月份的账单", roomId, billMonth);
 
@@ -75,50 +105,120 @@ public class BillService {
         Building building = buildingRepository.findById(room.getBuildingId())
                 .orElseThrow(() -> new RuntimeException("楼宇信息不存在"));
 
-        Bill bill = new Bill();
-        bill.setRoomId(roomId);
-        bill.setBillMonth(billMonth);
-        bill.setBillDate(LocalDate.now());
-        bill.setCreatedBy(userId);
-
-        // 从房间信息获取房租和押金
-        bill.setRent(room.getRent()); // 房租
+        Bill bill = createBillSkeleton(room, building, billMonth, userId);
 
         // 押金处理逻辑：检查是否为该房间的首月账单
         BigDecimal depositAmount = calculateDepositAmount(roomId, billMonth, room);
         bill.setDeposit(depositAmount);
 
-        // 从房间或楼宇信息获取水电费单价（优先使用房间设置，如果没有则使用楼宇设置）
-        bill.setElectricityUnitPrice(room.getElectricityUnitPrice() != null ? 
-            room.getElectricityUnitPrice() : building.getElectricityUnitPrice());
-        bill.setWaterUnitPrice(room.getWaterUnitPrice() != null ? 
-            room.getWaterUnitPrice() : building.getWaterUnitPrice());
-        bill.setHotWaterUnitPrice(room.getHotWaterUnitPrice() != null ? 
-            room.getHotWaterUnitPrice() : building.getHotWaterUnitPrice());
-
         // 计算水电费用量和金额
         calculateUtilityUsageAndAmount(bill, roomId, billMonth);
 
-        // 设置其他费用
-        bill.setOtherFees(BigDecimal.ZERO);
-        bill.setOtherFeesDescription("");
-
         // 计算总金额
-        BigDecimal totalAmount = bill.getRent()
-                .add(bill.getDeposit())
-                .add(bill.getElectricityAmount())
-                .add(bill.getWaterAmount())
-                .add(bill.getHotWaterAmount())
-                .add(bill.getOtherFees());
-        bill.setTotalAmount(totalAmount);
+        bill.setTotalAmount(calculateTotalAmount(bill));
 
         // 保存账单
         Bill savedBill = billRepository.save(bill);
+        billRollupService.refresh(billMonth, List.of(building.getId()));
         log.info("账单生成成功，账单ID: {}", savedBill.getId());
 
         return convertToDto(savedBill);
     }
 
+    /**
+     * 批量为所有已出租房间生成指定月份的账单
+     * 房间、楼宇、两个月的抄表记录以及已有账单状态各用一次集合查询加载，
+     * 在内存中计算全部账单后批量插入
+     */
+    public BatchBillGenerationResult generateBillsForMonth(String billMonth, Long userId) {
+        long startTime = System.currentTimeMillis();
+        log.info("开始批量生成 {} 月份的账单", billMonth);
+
+        LocalDate monthStart = LocalDate.parse(billMonth + "-01");
+        LocalDate monthEnd = monthStart.plusMonths(1).minusDays(1);
+        LocalDate lastMonthStart = monthStart.minusMonths(1);
+
+        BatchBillGenerationResult result = new BatchBillGenerationResult(billMonth);
+
+        // 已出租房间
+        List<Room> rooms = roomRepository.findRentedRooms();
+        result.setTotalRooms(rooms.size());
+        if (rooms.isEmpty()) {
+            result.setElapsedMillis(System.currentTimeMillis() - startTime);
+            return result;
+        }
+
+        // 房间所属楼宇
+        Set<Long> buildingIds = rooms.stream().map(Room::getBuildingId).collect(Collectors.toSet());
+        Map<Long, Building> buildings = buildingRepository.findAllById(buildingIds).stream()
+                .collect(Collectors.toMap(Building::getId, Function.identity()));
+
+        // 本月已有账单的房间，以及已有任意账单（不再收取押金）的房间
+        Set<Long> billedRoomIds = new HashSet<>(billRepository.findRoomIdsByBillMonth(billMonth));
+        Set<Long> roomIdsWithBills = new HashSet<>(billRepository.findRentedRoomIdsWithBills());
+
+        // 上月和本月的抄表记录，按房间ID、日期倒序排列，每个房间只取各月最新一条
+        Map<Long, UtilityReading> currentReadings = new HashMap<>();
+        Map<Long, UtilityReading> lastReadings = new HashMap<>();
+        for (UtilityReading reading : utilityReadingRepository.findRentedRoomReadingsBetween(lastMonthStart, monthEnd)) {
+            Map<Long, UtilityReading> target = reading.getReadingDate().isBefore(monthStart) ? lastReadings : currentReadings;
+            target.putIfAbsent(reading.getRoomId(), reading);
+        }
+
+        // 在内存中计算账单
+        List<Bill> bills = new ArrayList<>(rooms.size());
+        for (Room room : rooms) {
+            if (billedRoomIds.contains(room.getId())) {
+                result.setSkippedCount(result.getSkippedCount() + 1);
+                continue;
+            }
+
+            Building building = buildings.get(room.getBuildingId());
+            if (building == null) {
+                result.addFailure(room.getId(), "楼宇信息不存在");
+                continue;
+            }
+
+            try {
+                Bill bill = createBillSkeleton(room, building, billMonth, userId);
+                bill.setDeposit(roomIdsWithBills.contains(room.getId()) ? BigDecimal.ZERO : firstBillDeposit(room));
+                applyUtilityUsage(bill, currentReadings.get(room.getId()), lastReadings.get(room.getId()));
+                bill.setTotalAmount(calculateTotalAmount(bill));
+                bills.add(bill);
+            } catch (RuntimeException e) {
+                log.warn("房间 {} 账单计算失败: {}", room.getId(), e.getMessage());
+                result.addFailure(room.getId(), e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            }
+        }
+
+        // 批量插入（序列主键 + hibernate.jdbc.batch_size，按批发送INSERT）
+        billRepository.saveAll(bills);
+        billRollupService.refresh(billMonth, buildingIds);
+        result.setCreatedCount(bills.size());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+
+        log.info("{} 月份账单批量生成完成，房间数: {}, 生成: {}, 跳过: {}, 失败: {}, 耗时: {} ms",
+                billMonth, result.getTotalRooms(), result.getCreatedCount(),
+                result.getSkippedCount(), result.getFailedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 按最新抄表记录重算房间指定月份的账单，只处理已生成、已确认状态的账单，返回更新数量
+     */
+    public int recalculateBills(Long roomId, Collection<String> billMonths) {
+        List<Bill> bills = billRepository.findByRoomIdAndBillMonthInAndBillStatusIn(roomId, billMonths,
+                List.of(Bill.BillStatus.GENERATED.name(), Bill.BillStatus.CONFIRMED.name()));
+        for (Bill bill : bills) {
+            calculateUtilityUsageAndAmount(bill, roomId, bill.getBillMonth());
+            bill.setTotalAmount(calculateTotalAmount(bill));
+            bill.setUpdatedAt(LocalDateTime.now());
+        }
+        billRepository.saveAll(bills);
+        billRollupService.refreshForBills(bills);
+        return bills.size();
+    }
+
     /**
      * 计算水电费用量和金额
      */
@@ -136,46 +236,92 @@ public class BillService {
                     lastMonth.withDayOfMonth(1),
                     lastMonth.withDayOfMonth(lastMonth.lengthOfMonth()));
 
-        // 计算用量（当月最新读数 - 上月最新读数）
-        if (!currentMonthReadings.isEmpty()) {
-            // 获取当月最新的抄表记录（第一个，因为已按日期倒序排列）
-            UtilityReading currentReading = currentMonthReadings.get(0);
-            
-            if (!lastMonthReadings.isEmpty()) {
-                // 获取上月最新的抄表记录（第一个，因为已按日期倒序排列）
-                UtilityReading lastReading = lastMonthReadings.get(0);
-                
-                // 计算用量：当月读数 - 上月读数
-                BigDecimal electricityUsage = currentReading.getElectricityReading().subtract(lastReading.getElectricityReading());
-                BigDecimal waterUsage = currentReading.getWaterReading().subtract(lastReading.getWaterReading());
-                BigDecimal hotWaterUsage = currentReading.getHotWaterReading().subtract(lastReading.getHotWaterReading());
-                
-                // 确保用量不为负数（防止抄表错误）
-                bill.setElectricityUsage(electricityUsage.max(BigDecimal.ZERO));
-                bill.setWaterUsage(waterUsage.max(BigDecimal.ZERO));
-                bill.setHotWaterUsage(hotWaterUsage.max(BigDecimal.ZERO));
-                
-                log.info("房间 {} 在 {} 月份计算用量：电 {} 度，水 {} 吨，热水 {} 吨", 
-                    roomId, billMonth, electricityUsage, waterUsage, hotWaterUsage);
-            } else {
-                // 只有当月抄表记录，没有上月记录，用量设为0
-                log.info("房间 {} 在 {} 月份只有当月抄表记录，没有上月记录，水电费用量设为0", roomId, billMonth);
-                bill.setElectricityUsage(BigDecimal.ZERO);
-                bill.setWaterUsage(BigDecimal.ZERO);
-                bill.setHotWaterUsage(BigDecimal.ZERO);
-            }
-        } else {
-            // 如果没有当月抄表记录，用量为0，不产生水电费
+        UtilityReading currentReading = currentMonthReadings.isEmpty() ? null : currentMonthReadings.get(0);
+        UtilityReading lastReading = lastMonthReadings.isEmpty() ? null : lastMonthReadings.get(0);
+
+        if (currentReading == null) {
             log.info("房间 {} 在 {} 月份没有抄表记录，水电费用量设为0", roomId, billMonth);
+        } else if (lastReading == null) {
+            log.info("房间 {} 在 {} 月份只有当月抄表记录，没有上月记录，水电费用量设为0", roomId, billMonth);
+        }
+
+        applyUtilityUsage(bill, currentReading, lastReading);
+
+        if (currentReading != null && lastReading != null) {
+            log.info("房间 {} 在 {} 月份计算用量：电 {} 度，水 {} 吨，热水 {} 吨",
+                roomId, billMonth, bill.getElectricityUsage(), bill.getWaterUsage(), bill.getHotWaterUsage());
+        }
+    }
+
+    /**
+     * 根据当月和上月最新读数计算用量和金额
+     * 当月最新读数 - 上月最新读数，任一读数缺失时用量为0
+     */
+    private void applyUtilityUsage(Bill bill, UtilityReading currentReading, UtilityReading lastReading) {
+        if (currentReading != null && lastReading != null) {
+            // 计算用量：当月读数 - 上月读数
+            BigDecimal electricityUsage = currentReading.getElectricityReading().subtract(lastReading.getElectricityReading());
+            BigDecimal waterUsage = currentReading.getWaterReading().subtract(lastReading.getWaterReading());
+            BigDecimal hotWaterUsage = nullToZero(currentReading.getHotWaterReading()).subtract(nullToZero(lastReading.getHotWaterReading()));
+
+            // 确保用量不为负数（防止抄表错误）
+            bill.setElectricityUsage(electricityUsage.max(BigDecimal.ZERO));
+            bill.setWaterUsage(waterUsage.max(BigDecimal.ZERO));
+            bill.setHotWaterUsage(hotWaterUsage.max(BigDecimal.ZERO));
+        } else {
+            // 没有当月或上月抄表记录，用量为0，不产生水电费
             bill.setElectricityUsage(BigDecimal.ZERO);
             bill.setWaterUsage(BigDecimal.ZERO);
             bill.setHotWaterUsage(BigDecimal.ZERO);
         }
 
         // 计算金额
-        bill.setElectricityAmount(bill.getElectricityUsage().multiply(bill.getElectricityUnitPrice()).setScale(2, RoundingMode.HALF_UP));
-        bill.setWaterAmount(bill.getWaterUsage().multiply(bill.getWaterUnitPrice()).setScale(2, RoundingMode.HALF_UP));
-        bill.setHotWaterAmount(bill.getHotWaterUsage().multiply(bill.getHotWaterUnitPrice()).setScale(2, RoundingMode.HALF_UP));
+        bill.setElectricityAmount(bill.getElectricityUsage().multiply(nullToZero(bill.getElectricityUnitPrice())).setScale(2, RoundingMode.HALF_UP));
+        bill.setWaterAmount(bill.getWaterUsage().multiply(nullToZero(bill.getWaterUnitPrice())).setScale(2, RoundingMode.HALF_UP));
+        bill.setHotWaterAmount(bill.getHotWaterUsage().multiply(nullToZero(bill.getHotWaterUnitPrice())).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * 创建账单并填充房租和水电单价
+     */
+    private Bill createBillSkeleton(Room room, Building building, String billMonth, Long userId) {
+        Bill bill = new Bill();
+        bill.setRoomId(room.getId());
+        bill.setBillMonth(billMonth);
+        bill.setBillDate(LocalDate.now());
+        bill.setCreatedBy(userId);
+
+        // 从房间信息获取房租
+        bill.setRent(room.getRent());
+
+        // 从房间或楼宇信息获取水电费单价（优先使用房间设置，如果没有则使用楼宇设置）
+        bill.setElectricityUnitPrice(room.getElectricityUnitPrice() != null ?
+            room.getElectricityUnitPrice() : building.getElectricityUnitPrice());
+        bill.setWaterUnitPrice(room.getWaterUnitPrice() != null ?
+            room.getWaterUnitPrice() : building.getWaterUnitPrice());
+        bill.setHotWaterUnitPrice(room.getHotWaterUnitPrice() != null ?
+            room.getHotWaterUnitPrice() : nullToZero(building.getHotWaterUnitPrice()));
+
+        // 设置其他费用
+        bill.setOtherFees(BigDecimal.ZERO);
+        bill.setOtherFeesDescription("");
+        return bill;
+    }
+
+    /**
+     * 计算账单总金额
+     */
+    private BigDecimal calculateTotalAmount(Bill bill) {
+        return bill.getRent()
+                .add(bill.getDeposit())
+                .add(bill.getElectricityAmount())
+                .add(bill.getWaterAmount())
+                .add(bill.getHotWaterAmount())
+                .add(bill.getOtherFees());
+    }
+
+    private static BigDecimal nullToZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
 
     /**
@@ -187,7 +333,75 @@ public class BillService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("billMonth").descending().and(Sort.by("roomId")));
         Page<Bill> billPage = billRepository.findBillsWithFilters(roomId, billMonth, billStatus, pageable);
         
-        return billPage.map(this::convertToDto);
+        return new PageImpl<>(convertToDtoList(billPage.getContent()), billPage.getPageable(), billPage.getTotalElements());
+    }
+
+    /**
+     * 游标分页查询账单（按账单月份倒序、房间ID正序，不执行COUNT）
+     */
+    public CursorPage<BillDto> scrollBills(Long roomId, String billMonth, Bill.BillStatus billStatus,
+                                           String cursor, int size, boolean includeTotal) {
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<Bill> bills;
+        if (cursor == null || cursor.isBlank()) {
+            bills = billRepository.scrollFirst(roomId, billMonth, billStatus, limit);
+        } else {
+            String[] keys = CursorCodec.decode(cursor, 2);
+            bills = billRepository.scrollAfter(roomId, billMonth, billStatus, keys[0], Long.valueOf(keys[1]), limit);
+        }
+
+        boolean hasMore = bills.size() > size;
+        if (hasMore) {
+            bills = bills.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Bill last = bills.get(bills.size() - 1);
+            nextCursor = CursorCodec.encode(last.getBillMonth(), last.getRoomId());
+        }
+
+        CursorPage<BillDto> result = new CursorPage<>(convertToDtoList(bills), size, hasMore, nextCursor);
+        if (includeTotal) {
+            result.setTotalElements(billRepository.countWithFilters(roomId, billMonth, billStatus));
+        }
+        return result;
+    }
+
+    /**
+     * 按筛选条件流式导出账单CSV，逐行写出并从持久化上下文中移除，内存占用与行数无关
+     */
+    @ReplicaRead
+    public void exportBillsCsv(Long roomId, String billMonth, Bill.BillStatus billStatus,
+                               OutputStream outputStream) throws IOException {
+        log.info("导出账单CSV，房间ID: {}, 账单月份: {}, 状态: {}", roomId, billMonth, billStatus);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CsvUtils.UTF8_BOM);
+        CsvUtils.writeRow(writer, "账单ID", "账单月份", "账单日期", "楼宇", "房号", "房租", "押金",
+                "用电量", "电费", "用水量", "水费", "热水用量", "热水费", "其他费用", "其他费用说明",
+                "总金额", "状态", "备注");
+
+        long count = 0;
+        try (Stream<Object[]> rows = billRepository.streamForExport(roomId, billMonth, billStatus)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Bill bill = (Bill) row[0];
+                CsvUtils.writeRow(writer, bill.getId(), bill.getBillMonth(), bill.getBillDate(), row[2], row[1],
+                        bill.getRent(), bill.getDeposit(),
+                        bill.getElectricityUsage(), bill.getElectricityAmount(),
+                        bill.getWaterUsage(), bill.getWaterAmount(),
+                        bill.getHotWaterUsage(), bill.getHotWaterAmount(),
+                        bill.getOtherFees(), bill.getOtherFeesDescription(),
+                        bill.getTotalAmount(), bill.getBillStatus(), bill.getNotes());
+                entityManager.detach(bill);
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("账单CSV导出完成，共 {} 行", count);
     }
 
     /**
@@ -202,7 +416,6 @@ public class BillService {
     /**
      * 更新账单
      */
-    @CacheEvict(value = {"bills", "rooms"}, allEntries = true)
     public BillDto updateBill(Long id, BillDto billDto, Long userId) {
         Bill bill = billRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("账单不存在"));
@@ -219,9 +432,9 @@ public class BillService {
         if (billDto.getNotes() != null) bill.setNotes(billDto.getNotes());
 
         // 重新计算金额
-        bill.setElectricityAmount(bill.getElectricityUsage().multiply(bill.getElectricityUnitPrice()).setScale(2, RoundingMode.HALF_UP));
-        bill.setWaterAmount(bill.getWaterUsage().multiply(bill.getWaterUnitPrice()).setScale(2, RoundingMode.HALF_UP));
-        bill.setHotWaterAmount(bill.getHotWaterUsage().multiply(bill.getHotWaterUnitPrice()).setScale(2, RoundingMode.HALF_UP));
+        bill.setElectricityAmount(bill.getElectricityUsage().multiply(nullToZero(bill.getElectricityUnitPrice())).setScale(2, RoundingMode.HALF_UP));
+        bill.setWaterAmount(bill.getWaterUsage().multiply(nullToZero(bill.getWaterUnitPrice())).setScale(2, RoundingMode.HALF_UP));
+        bill.setHotWaterAmount(bill.getHotWaterUsage().multiply(nullToZero(bill.getHotWaterUnitPrice())).setScale(2, RoundingMode.HALF_UP));
 
         // 重新计算总金额
         BigDecimal totalAmount = bill.getRent()
@@ -233,6 +446,7 @@ public class BillService {
         bill.setTotalAmount(totalAmount);
 
         Bill savedBill = billRepository.save(bill);
+        billRollupService.refreshForBills(List.of(savedBill));
         log.info("账单更新成功，账单ID: {}", savedBill.getId());
 
         return convertToDto(savedBill);
@@ -241,13 +455,12 @@ public class BillService {
     /**
      * 删除账单
      */
-    @CacheEvict(value = {"bills", "rooms"}, allEntries = true)
     public void deleteBill(Long id) {
-        if (!billRepository.existsById(id)) {
-            throw new RuntimeException("账单不存在");
-        }
+        Bill bill = billRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("账单不存在"));
 
-        billRepository.deleteById(id);
+        billRepository.delete(bill);
+        billRollupService.refreshForBills(List.of(bill));
         log.info("账单删除成功，账单ID: {}", id);
     }
 
@@ -264,8 +477,8 @@ public class BillService {
 
         if (existingBillCount == 0) {
             // 这是该房间的第一张账单，收取押金
-            BigDecimal depositAmount = room.getDefaultDeposit();
-            if (depositAmount != null && depositAmount.compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal depositAmount = firstBillDeposit(room);
+            if (depositAmount.compareTo(BigDecimal.ZERO) > 0) {
                 log.info("房间 {} 首次生成账单，收取押金: {}", roomId, depositAmount);
                 return depositAmount;
             }
@@ -276,10 +489,88 @@ public class BillService {
         return BigDecimal.ZERO;
     }
 
+    /**
+     * 首张账单应收押金（未设置或为负数时为0）
+     */
+    private BigDecimal firstBillDeposit(Room room) {
+        BigDecimal depositAmount = room.getDefaultDeposit();
+        return depositAmount != null && depositAmount.compareTo(BigDecimal.ZERO) > 0 ? depositAmount : BigDecimal.ZERO;
+    }
+
     /**
      * 转换为DTO
      */
     private BillDto convertToDto(Bill bill) {
+        BillDto dto = toBaseDto(bill);
+
+        // 获取房间和楼宇信息
+        roomRepository.findById(bill.getRoomId()).ifPresent(room -> {
+            dto.setRoomNumber(room.getRoomNumber());
+            buildingRepository.findById(room.getBuildingId()).ifPresent(building -> {
+                dto.setBuildingName(building.getBuildingName());
+            });
+        });
+
+        // 获取创建人用户名
+        if (bill.getCreatedBy() != null) {
+            userRepository.findById(bill.getCreatedBy()).ifPresent(user -> {
+                dto.setCreatedByUsername(user.getUsername());
+            });
+        }
+
+        return dto;
+    }
+
+    /**
+     * 批量转换为DTO
+     * 房间、楼宇和创建人各用一次IN查询加载，避免逐条查询
+     */
+    private List<BillDto> convertToDtoList(List<Bill> bills) {
+        if (bills.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 房间信息
+        Set<Long> roomIds = bills.stream().map(Bill::getRoomId).collect(Collectors.toSet());
+        Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        // 楼宇名称
+        Set<Long> buildingIds = rooms.values().stream().map(Room::getBuildingId).collect(Collectors.toSet());
+        Map<Long, String> buildingNames = buildingIds.isEmpty() ? Map.of() :
+                buildingRepository.findAllById(buildingIds).stream()
+                        .collect(Collectors.toMap(Building::getId, Building::getBuildingName));
+
+        // 创建人用户名
+        Set<Long> creatorIds = bills.stream().map(Bill::getCreatedBy)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, String> usernames = new HashMap<>();
+        if (!creatorIds.isEmpty()) {
+            for (Object[] row : userRepository.findUsernamesByIdIn(creatorIds)) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+        }
+
+        List<BillDto> result = new ArrayList<>(bills.size());
+        for (Bill bill : bills) {
+            BillDto dto = toBaseDto(bill);
+            Room room = rooms.get(bill.getRoomId());
+            if (room != null) {
+                dto.setRoomNumber(room.getRoomNumber());
+                dto.setBuildingName(buildingNames.get(room.getBuildingId()));
+            }
+            if (bill.getCreatedBy() != null) {
+                dto.setCreatedByUsername(usernames.get(bill.getCreatedBy()));
+            }
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * 复制账单自身字段到DTO（不含房间、楼宇和创建人信息）
+     */
+    private BillDto toBaseDto(Bill bill) {
         BillDto dto = new BillDto();
         dto.setId(bill.getId());
         dto.setRoomId(bill.getRoomId());
@@ -305,22 +596,6 @@ public class BillService {
         dto.setCreatedBy(bill.getCreatedBy());
         dto.setCreatedAt(bill.getCreatedAt());
         dto.setUpdatedAt(bill.getUpdatedAt());
-
-        // 获取房间和楼宇信息
-        roomRepository.findById(bill.getRoomId()).ifPresent(room -> {
-            dto.setRoomNumber(room.getRoomNumber());
-            buildingRepository.findById(room.getBuildingId()).ifPresent(building -> {
-                dto.setBuildingName(building.getBuildingName());
-            });
-        });
-
-        // 获取创建人用户名
-        if (bill.getCreatedBy() != null) {
-            userRepository.findById(bill.getCreatedBy()).ifPresent(user -> {
-                dto.setCreatedByUsername(user.getUsername());
-            });
-        }
-
         return dto;
     }
 }
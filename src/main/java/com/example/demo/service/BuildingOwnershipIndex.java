@@ -0,0 +1,114 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserBuildingRepository;
+import com.example.demo.util.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 用户楼宇归属索引
+ *
+ * 在内存中缓存 用户ID -> 有序 long[] 楼宇ID，权限校验只做二分查找，不访问数据库。
+ * 用户首次出现时从 user_buildings 加载；本实例上楼宇创建、分配、移除、删除以及用户删除时，
+ * 在所在事务提交后失效相关用户的条目，下次访问重新加载。
+ * 条目按 app.ownership.cache-spec 限制数量并在写入后过期，其他实例的变更最多延迟一个过期时间生效。
+ */
+@Component
+public class BuildingOwnershipIndex {
+
+    private final UserBuildingRepository userBuildingRepository;
+
+    private final Cache<Long, long[]> buildingIdsByUser;
+
+    /**
+     * 失效次数，加载期间有失效时不缓存加载结果（可能已过期）
+     */
+    private long version;
+
+    @Autowired
+    public BuildingOwnershipIndex(UserBuildingRepository userBuildingRepository,
+                                  @Value("${app.ownership.cache-spec:maximumSize=10000,expireAfterWrite=5m}") String cacheSpec) {
+        this(userBuildingRepository, Caffeine.from(cacheSpec));
+    }
+
+    BuildingOwnershipIndex(UserBuildingRepository userBuildingRepository, Caffeine<Object, Object> cacheBuilder) {
+        this.userBuildingRepository = userBuildingRepository;
+        this.buildingIdsByUser = cacheBuilder.build();
+    }
+
+    /**
+     * 用户是否拥有楼宇
+     */
+    public boolean owns(Long userId, Long buildingId) {
+        if (userId == null || buildingId == null) {
+            return false;
+        }
+        return Arrays.binarySearch(buildingIdsOf(userId), buildingId) >= 0;
+    }
+
+    /**
+     * 用户拥有的楼宇ID（升序）
+     */
+    public List<Long> getBuildingIds(Long userId) {
+        long[] ids = buildingIdsOf(userId);
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * 用户的楼宇归属变化（创建、分配、移除楼宇）或用户删除后失效其条目，下次访问重新加载
+     */
+    public void invalidateUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> invalidate(userId));
+    }
+
+    /**
+     * 楼宇删除后失效拥有它的用户
+     */
+    public void removeBuilding(Long buildingId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                version++;
+                buildingIdsByUser.asMap().values().removeIf(ids -> Arrays.binarySearch(ids, buildingId) >= 0);
+            }
+        });
+    }
+
+    private synchronized void invalidate(Long userId) {
+        version++;
+        buildingIdsByUser.invalidate(userId);
+    }
+
+    private long[] buildingIdsOf(Long userId) {
+        long[] ids = buildingIdsByUser.getIfPresent(userId);
+        if (ids != null) {
+            return ids;
+        }
+        long loadedVersion;
+        synchronized (this) {
+            loadedVersion = version;
+        }
+        // 查询在锁外执行
+        long[] loaded = userBuildingRepository.findBuildingIdsByUserId(userId).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        synchronized (this) {
+            if (version != loadedVersion) {
+                return loaded;
+            }
+            ids = buildingIdsByUser.asMap().putIfAbsent(userId, loaded);
+            return ids != null ? ids : loaded;
+        }
+    }
+}
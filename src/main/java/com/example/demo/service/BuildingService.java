@@ -5,13 +5,16 @@ import com.example.demo.entity.Building;
 import com.example.demo.entity.UserBuilding;
 import com.example.demo.mapper.BuildingMapper;
 import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.UserBuildingRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CacheHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -42,6 +45,18 @@ public class BuildingService {
     @Autowired
     private BuildingMapper buildingMapper;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BuildingOwnershipIndex buildingOwnershipIndex;
+
+    @Autowired
+    private CacheHelper cacheHelper;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -50,7 +65,10 @@ public class BuildingService {
     /**
      * 创建楼宇
      */
-    @CacheEvict(value = {"buildings", "userOwnedBuildings"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "buildings", allEntries = true),
+            @CacheEvict(value = "userOwnedBuildings", key = "#userId")
+    })
     public BuildingDto createBuilding(BuildingDto buildingDto, Long userId) {
         log.info("创建楼宇: {}, 创建者: {}", buildingDto.getBuildingName(), userId);
 
@@ -64,10 +82,12 @@ public class BuildingService {
         building.setCreatedAt(LocalDateTime.now());
 
         Building savedBuilding = buildingRepository.save(building);
+        searchIndexService.indexBuilding(savedBuilding);
 
         // 创建用户楼宇关联
         UserBuilding userBuilding = new UserBuilding(userId, savedBuilding.getId());
         userBuildingRepository.save(userBuilding);
+        buildingOwnershipIndex.invalidateUser(userId);
 
         log.info("楼宇创建成功: {}", savedBuilding.getBuildingName());
 
@@ -77,7 +97,7 @@ public class BuildingService {
     /**
      * 获取所有楼宇
      */
-    @Cacheable(value = "buildings")
+    @Cacheable(value = "buildings") // 该缓存只保存全量列表这一个条目
     public List<BuildingDto> getAllBuildings() {
         return buildingMapper.toDtoList(buildingRepository.findAll());
     }
@@ -197,13 +217,18 @@ public class BuildingService {
      * 搜索楼宇
      */
     public List<BuildingDto> searchBuildings(String keyword) {
-        return buildingMapper.toDtoList(buildingRepository.searchBuildings(keyword));
+        List<Long> ids = searchIndexService.searchBuildings(keyword);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return buildingMapper.toDtoList(
+                SearchIndexService.inRankOrder(ids, buildingRepository.findAllById(ids), Building::getId));
     }
     
     /**
      * 更新楼宇
      */
-    @CacheEvict(value = {"buildings", "userOwnedBuildings"}, allEntries = true)
+    @CacheEvict(value = {"buildings", "rooms", "utilityMargins"}, allEntries = true)
     public BuildingDto updateBuilding(Long id, BuildingDto buildingDto) {
         Building building = buildingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("楼宇不存在"));
@@ -218,6 +243,8 @@ public class BuildingService {
         building.setUpdatedAt(LocalDateTime.now());
 
         Building savedBuilding = buildingRepository.save(building);
+        searchIndexService.indexBuilding(savedBuilding);
+        evictOwnersOwnedBuildings(id);
         log.info("楼宇更新成功: {}", savedBuilding.getBuildingName());
 
         return buildingMapper.toDto(savedBuilding);
@@ -226,16 +253,21 @@ public class BuildingService {
     /**
      * 删除楼宇
      */
-    @CacheEvict(value = {"buildings", "userOwnedBuildings"}, allEntries = true)
+    @CacheEvict(value = {"buildings", "rooms", "utilityMargins"}, allEntries = true)
     @Transactional
     public void deleteBuilding(Long id) {
         Building building = buildingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("楼宇不存在"));
+
+        // 关联删除前先失效拥有者的楼宇缓存
+        evictOwnersOwnedBuildings(id);
         
         // 删除用户楼宇关联
         userBuildingRepository.deleteByBuildingId(id);
+        buildingOwnershipIndex.removeBuilding(id);
         
-        // 删除楼宇
+        // 删除楼宇（房间由数据库级联删除）
+        searchIndexService.removeBuilding(id, roomRepository.findIdsByBuildingId(id));
         buildingRepository.delete(building);
         log.info("楼宇删除成功: {}", building.getBuildingName());
     }
@@ -243,6 +275,7 @@ public class BuildingService {
     /**
      * 分配楼宇给用户
      */
+    @CacheEvict(value = "userOwnedBuildings", key = "#userId")
     @Transactional
     public void assignBuildingToUser(Long buildingId, Long userId) {
         if (!buildingRepository.existsById(buildingId)) {
@@ -259,21 +292,34 @@ public class BuildingService {
         
         UserBuilding userBuilding = new UserBuilding(userId, buildingId);
         userBuildingRepository.save(userBuilding);
+        buildingOwnershipIndex.invalidateUser(userId);
         log.info("楼宇分配成功: 楼宇ID={}, 用户ID={}", buildingId, userId);
     }
     
     /**
      * 移除用户的楼宇
      */
+    @CacheEvict(value = "userOwnedBuildings", key = "#userId")
     @Transactional
     public void removeBuildingFromUser(Long buildingId, Long userId) {
         UserBuilding userBuilding = userBuildingRepository.findByUserIdAndBuildingId(userId, buildingId)
                 .orElseThrow(() -> new RuntimeException("用户不拥有该楼宇"));
 
         userBuildingRepository.delete(userBuilding);
+        buildingOwnershipIndex.invalidateUser(userId);
         log.info("楼宇移除成功: 楼宇ID={}, 用户ID={}", buildingId, userId);
     }
 
+    /**
+     * 失效拥有指定楼宇的用户的楼宇列表缓存
+     */
+    private void evictOwnersOwnedBuildings(Long buildingId) {
+        List<Long> ownerIds = userBuildingRepository.findByBuildingId(buildingId).stream()
+                .map(UserBuilding::getUserId)
+                .collect(Collectors.toList());
+        cacheHelper.evictAll("userOwnedBuildings", ownerIds);
+    }
+
 
 
 }
\ No newline at end of file
@@ -0,0 +1,364 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeterIngestionStats;
+import com.example.demo.dto.MeterPushResult;
+import com.example.demo.dto.MeterReadingPush;
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.event.UtilityReadingChangedEvent;
+import com.example.demo.repository.RoomRepository;
+import com.example.demo.repository.UtilityReadingRepository;
+import com.example.demo.util.CacheHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 智能表读数采集服务
+ *
+ * 网关推送的读数先进入有界队列，队列满时直接拒绝（由网关退避重试）；
+ * 定时任务分批取出，按(房间, 日期)合并为当天最新的一条后批量写入，
+ * 与 uk_room_date 唯一约束保持一致。
+ * 队列中的每条读数最终要么写入（meter.ingest.readings.written），要么按原因计入
+ * meter.ingest.pushes.dropped，队列清空后 accepted = written + dropped。
+ */
+@Service
+public class MeterIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterIngestionService.class);
+
+    /**
+     * 自动抄表记录的抄表人前缀
+     */
+    private static final String AUTO_METER_READER_PREFIX = "AUTO-";
+
+    /**
+     * 已入队但未写入的原因
+     */
+    public enum DropReason {
+        /** 房间不存在 */
+        UNKNOWN_ROOM,
+        /** 当天已有人工抄表记录 */
+        MANUAL_WINS,
+        /** 比当天已有的自动抄表记录旧 */
+        STALE,
+        /** 同批次同房间同一天有更新的推送，被合并掉 */
+        SUPERSEDED,
+        /** 单独写入仍失败 */
+        ERROR;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final UtilityReadingRepository utilityReadingRepository;
+    private final RoomRepository roomRepository;
+    private final CacheHelper cacheHelper;
+    private final ReadingUsageCalculator readingUsageCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<MeterReadingPush> queue;
+    private final int queueCapacity;
+    private final int maxBatchSize;
+    private final Long systemUserId;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter invalidCounter;
+    private final Map<DropReason, Counter> droppedCounters = new EnumMap<>(DropReason.class);
+    private final Counter writtenCounter;
+    private final Timer flushTimer;
+
+    private volatile long lastFlushMillis;
+
+    public MeterIngestionService(UtilityReadingRepository utilityReadingRepository,
+                                 RoomRepository roomRepository,
+                                 CacheHelper cacheHelper,
+                                 ReadingUsageCalculator readingUsageCalculator,
+                                 ApplicationEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.meter-ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${app.meter-ingest.max-batch-size:1000}") int maxBatchSize,
+                                 @Value("${app.meter-ingest.system-user-id:1}") Long systemUserId) {
+        this.utilityReadingRepository = utilityReadingRepository;
+        this.roomRepository = roomRepository;
+        this.cacheHelper = cacheHelper;
+        this.readingUsageCalculator = readingUsageCalculator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.systemUserId = systemUserId;
+
+        Gauge.builder("meter.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("智能表读数待写入队列长度")
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("meter.ingest.pushes", "result", "accepted");
+        this.rejectedCounter = meterRegistry.counter("meter.ingest.pushes", "result", "rejected");
+        this.invalidCounter = meterRegistry.counter("meter.ingest.pushes", "result", "invalid");
+        for (DropReason reason : DropReason.values()) {
+            droppedCounters.put(reason, meterRegistry.counter("meter.ingest.pushes.dropped", "reason", reason.tag()));
+        }
+        this.writtenCounter = meterRegistry.counter("meter.ingest.readings.written");
+        this.flushTimer = Timer.builder("meter.ingest.flush")
+                .description("智能表读数批量写入耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 接收网关推送，队列满时剩余读数全部拒绝
+     */
+    public MeterPushResult submit(List<MeterReadingPush> pushes) {
+        MeterPushResult result = new MeterPushResult();
+        for (int i = 0; i < pushes.size(); i++) {
+            MeterReadingPush push = pushes.get(i);
+            if (!isValid(push)) {
+                result.setInvalidCount(result.getInvalidCount() + 1);
+                invalidCounter.increment();
+                continue;
+            }
+            if (!queue.offer(push)) {
+                int rejected = pushes.size() - i;
+                result.setRejectedCount(rejected);
+                rejectedCounter.increment(rejected);
+                log.warn("智能表读数队列已满（容量 {}），拒绝 {} 条读数", queueCapacity, rejected);
+                break;
+            }
+            result.setAcceptedCount(result.getAcceptedCount() + 1);
+            acceptedCounter.increment();
+        }
+        return result;
+    }
+
+    /**
+     * 定时将队列中的读数分批写入数据库，每次只处理开始时已在队列中的数据，避免持续推送时无法结束
+     */
+    @Scheduled(fixedDelayString = "${app.meter-ingest.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        int pending = queue.size();
+        while (pending > 0) {
+            List<MeterReadingPush> batch = new ArrayList<>(Math.min(pending, maxBatchSize));
+            queue.drainTo(batch, Math.min(pending, maxBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            pending -= batch.size();
+
+            long startTime = System.nanoTime();
+            try {
+                writeWithSplit(batch);
+            } finally {
+                long elapsed = System.nanoTime() - startTime;
+                flushTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            }
+        }
+    }
+
+    /**
+     * 应用关闭前写出队列中剩余的读数
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("应用关闭，写出剩余智能表读数 {} 条", queue.size());
+        flush();
+    }
+
+    /**
+     * 获取采集管道运行状态
+     */
+    public MeterIngestionStats getStats() {
+        MeterIngestionStats stats = new MeterIngestionStats();
+        stats.setQueueDepth(queue.size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setAcceptedCount((long) acceptedCounter.count());
+        stats.setRejectedCount((long) rejectedCounter.count());
+        stats.setInvalidCount((long) invalidCounter.count());
+        Map<String, Long> droppedByReason = new LinkedHashMap<>();
+        long dropped = 0;
+        for (Map.Entry<DropReason, Counter> entry : droppedCounters.entrySet()) {
+            long count = (long) entry.getValue().count();
+            droppedByReason.put(entry.getKey().tag(), count);
+            dropped += count;
+        }
+        stats.setDroppedCount(dropped);
+        stats.setDroppedByReason(droppedByReason);
+        stats.setWrittenCount((long) writtenCounter.count());
+        stats.setLastFlushMillis(lastFlushMillis);
+        return stats;
+    }
+
+    /**
+     * 写入一批读数，失败时对半拆分重试，最终只丢弃单独写入仍失败的读数
+     * （例如与并发录入的人工抄表记录冲突 uk_room_date），同批其他房间的读数不受影响
+     */
+    private void writeWithSplit(List<MeterReadingPush> batch) {
+        try {
+            writeBatch(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                droppedCounters.get(DropReason.ERROR).increment();
+                MeterReadingPush push = batch.get(0);
+                log.error("智能表读数写入失败，丢弃房间 {} 在 {} 的读数", push.getRoomId(), push.getReadingTime(), e);
+                return;
+            }
+            log.warn("智能表读数批量写入失败，拆分为两批重试，本批 {} 条: {}", batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            writeWithSplit(batch.subList(0, middle));
+            writeWithSplit(batch.subList(middle, batch.size()));
+        }
+    }
+
+    /**
+     * 合并并写入一批读数（单个事务，失败时整批回滚）
+     */
+    private void writeBatch(List<MeterReadingPush> batch) {
+        // 按(房间, 日期)合并，只保留采集时间最新的一条
+        Map<String, MeterReadingPush> latestByRoomDate = new LinkedHashMap<>();
+        for (MeterReadingPush push : batch) {
+            latestByRoomDate.merge(roomDateKey(push.getRoomId(), push.getReadingTime().toLocalDate()), push,
+                    (current, candidate) -> candidate.getReadingTime().isAfter(current.getReadingTime()) ? candidate : current);
+        }
+        Set<Long> roomIds = latestByRoomDate.values().stream()
+                .map(MeterReadingPush::getRoomId)
+                .collect(Collectors.toSet());
+        LocalDate startDate = latestByRoomDate.values().stream()
+                .map(push -> push.getReadingTime().toLocalDate()).min(LocalDate::compareTo).orElseThrow();
+        LocalDate endDate = latestByRoomDate.values().stream()
+                .map(push -> push.getReadingTime().toLocalDate()).max(LocalDate::compareTo).orElseThrow();
+
+        Set<Long> touchedRoomIds = new HashSet<>();
+        Map<Long, Set<LocalDate>> touchedReadingDates = new HashMap<>();
+        List<UtilityReading> updatedReadings = new ArrayList<>();
+        List<Long> recalculatedIds = new ArrayList<>();
+        Map<DropReason, Integer> drops = new EnumMap<>(DropReason.class);
+        int written = transactionTemplate.execute(status -> {
+            Set<Long> existingRoomIds = new HashSet<>(roomRepository.findExistingIds(roomIds));
+            Map<String, UtilityReading> existingReadings = new HashMap<>();
+            if (!existingRoomIds.isEmpty()) {
+                for (UtilityReading reading : utilityReadingRepository
+                        .findByRoomIdInAndReadingDateBetween(existingRoomIds, startDate, endDate)) {
+                    existingReadings.put(roomDateKey(reading.getRoomId(), reading.getReadingDate()), reading);
+                }
+            }
+
+            List<UtilityReading> newReadings = new ArrayList<>();
+            int writtenInBatch = 0;
+            for (Map.Entry<String, MeterReadingPush> entry : latestByRoomDate.entrySet()) {
+                MeterReadingPush push = entry.getValue();
+                if (!existingRoomIds.contains(push.getRoomId())) {
+                    drops.merge(DropReason.UNKNOWN_ROOM, 1, Integer::sum);
+                    continue;
+                }
+
+                UtilityReading existing = existingReadings.get(entry.getKey());
+                if (existing == null) {
+                    newReadings.add(toReading(push));
+                } else if (existing.getReadingType() == UtilityReading.ReadingType.AUTO
+                        && push.getReadingTime().isAfter(existing.getReadingTime())) {
+                    // 当天已有自动抄表记录，更新为最新读数（由脏检查批量UPDATE）
+                    applyPush(existing, push);
+                    existing.setUpdatedAt(LocalDateTime.now());
+                    updatedReadings.add(existing);
+                } else {
+                    // 人工抄表记录优先，或推送的读数比已有记录旧
+                    drops.merge(existing.getReadingType() == UtilityReading.ReadingType.AUTO
+                            ? DropReason.STALE : DropReason.MANUAL_WINS, 1, Integer::sum);
+                    continue;
+                }
+                touchedRoomIds.add(push.getRoomId());
+                touchedReadingDates.computeIfAbsent(push.getRoomId(), id -> new HashSet<>())
+                        .add(push.getReadingTime().toLocalDate());
+                writtenInBatch++;
+            }
+
+            List<UtilityReading> changedReadings = new ArrayList<>(newReadings);
+            changedReadings.addAll(updatedReadings);
+            recalculatedIds.addAll(readingUsageCalculator.applyPreviousReadings(changedReadings));
+
+            utilityReadingRepository.saveAll(newReadings);
+            return writtenInBatch;
+        });
+
+        // 提交成功后再计数，失败重试时不会重复计入
+        writtenCounter.increment(written);
+        drops.put(DropReason.SUPERSEDED, batch.size() - latestByRoomDate.size());
+        drops.forEach((reason, count) -> droppedCounters.get(reason).increment(count));
+
+        cacheHelper.evictAll("roomReadings", touchedRoomIds);
+        touchedReadingDates.forEach((roomId, dates) ->
+                eventPublisher.publishEvent(new UtilityReadingChangedEvent(roomId, dates)));
+        cacheHelper.evictAll("utilityReadings", updatedReadings.stream().map(UtilityReading::getId).toList());
+        cacheHelper.evictAll("utilityReadings", recalculatedIds);
+        log.debug("智能表读数批量写入完成，推送: {}, 合并后: {}, 涉及房间: {}",
+                batch.size(), latestByRoomDate.size(), touchedRoomIds.size());
+    }
+
+    /**
+     * 校验推送数据是否完整
+     */
+    private boolean isValid(MeterReadingPush push) {
+        return push != null
+                && push.getRoomId() != null
+                && push.getReadingTime() != null
+                && push.getElectricityReading() != null
+                && push.getWaterReading() != null;
+    }
+
+    /**
+     * 由推送数据创建自动抄表记录
+     */
+    private UtilityReading toReading(MeterReadingPush push) {
+        UtilityReading reading = new UtilityReading();
+        reading.setRoomId(push.getRoomId());
+        reading.setReadingType(UtilityReading.ReadingType.AUTO);
+        reading.setReadingStatus(UtilityReading.ReadingStatus.CONFIRMED);
+        reading.setCreatedBy(systemUserId);
+        applyPush(reading, push);
+        return reading;
+    }
+
+    /**
+     * 将推送的读数写入记录
+     */
+    private void applyPush(UtilityReading reading, MeterReadingPush push) {
+        reading.setReadingDate(push.getReadingTime().toLocalDate());
+        reading.setReadingTime(push.getReadingTime());
+        reading.setElectricityReading(push.getElectricityReading());
+        reading.setWaterReading(push.getWaterReading());
+        reading.setHotWaterReading(push.getHotWaterReading());
+        reading.setMeterReader(AUTO_METER_READER_PREFIX + (push.getGatewayId() != null ? push.getGatewayId() : "GATEWAY"));
+    }
+
+    private static String roomDateKey(Long roomId, LocalDate date) {
+        return roomId + "|" + date;
+    }
+}
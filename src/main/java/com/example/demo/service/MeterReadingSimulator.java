@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeterPushResult;
+import com.example.demo.dto.MeterReadingPush;
+import com.example.demo.entity.Room;
+import com.example.demo.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 智能表读数模拟器（仅用于本地离线测试）
+ *
+ * 开启 app.meter-ingest.simulator.enabled 后，定时为前 N 个房间生成单调递增的读数，
+ * 每个房间每轮推送多次以模拟高频上报，经由采集服务的同一入口写入。
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.meter-ingest.simulator", name = "enabled", havingValue = "true")
+public class MeterReadingSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterReadingSimulator.class);
+
+    private static final String GATEWAY_ID = "SIMULATOR";
+
+    private final MeterIngestionService meterIngestionService;
+    private final RoomRepository roomRepository;
+    private final int roomCount;
+    private final int pushesPerRoom;
+
+    /**
+     * 每个房间当前的 电/水/热水 读数
+     */
+    private final Map<Long, double[]> meterState = new ConcurrentHashMap<>();
+
+    public MeterReadingSimulator(MeterIngestionService meterIngestionService,
+                                 RoomRepository roomRepository,
+                                 @Value("${app.meter-ingest.simulator.room-count:50}") int roomCount,
+                                 @Value("${app.meter-ingest.simulator.pushes-per-room:5}") int pushesPerRoom) {
+        this.meterIngestionService = meterIngestionService;
+        this.roomRepository = roomRepository;
+        this.roomCount = roomCount;
+        this.pushesPerRoom = pushesPerRoom;
+        log.warn("智能表读数模拟器已启用，房间数: {}, 每房间每轮推送: {}", roomCount, pushesPerRoom);
+    }
+
+    /**
+     * 定时生成一轮模拟读数
+     */
+    @Scheduled(fixedRateString = "${app.meter-ingest.simulator.interval-ms:1000}")
+    public void generate() {
+        List<Long> roomIds = roomRepository.findAll().stream()
+                .map(Room::getId)
+                .limit(roomCount)
+                .toList();
+        if (roomIds.isEmpty()) {
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<MeterReadingPush> pushes = new ArrayList<>(roomIds.size() * pushesPerRoom);
+        for (Long roomId : roomIds) {
+            double[] meters = meterState.computeIfAbsent(roomId, id -> new double[]{
+                    random.nextDouble(0, 5000), random.nextDouble(0, 500), random.nextDouble(0, 200)});
+            for (int i = 0; i < pushesPerRoom; i++) {
+                meters[0] += random.nextDouble(0, 0.5);
+                meters[1] += random.nextDouble(0, 0.05);
+                meters[2] += random.nextDouble(0, 0.02);
+                pushes.add(new MeterReadingPush(GATEWAY_ID, roomId, LocalDateTime.now(),
+                        scale(meters[0]), scale(meters[1]), scale(meters[2])));
+            }
+        }
+
+        MeterPushResult result = meterIngestionService.submit(pushes);
+        log.debug("模拟器推送读数 {} 条，接收: {}, 拒绝: {}",
+                pushes.size(), result.getAcceptedCount(), result.getRejectedCount());
+    }
+
+    private static BigDecimal scale(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Room;
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.repository.UtilityReadingRepository;
+import com.example.demo.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 抄表记录异常检测
+ *
+ * 在内存中为每个房间维护日均用电量、用水量的指数加权均值和方差（只用基本类型字段），
+ * 新记录保存前检查：读数回退、已出租房间零用量、日均用量 z 分数超过阈值。
+ * 日均用量 = 本期用量 / 距上一条抄表记录（任意来源）的天数，与用量的计算基准一致。
+ * 房间首次出现时从数据库加载最近的记录预热；被判定异常的记录不计入统计；
+ * 统计在记录所在事务提交后才更新，回滚的写入不影响统计。
+ */
+@Component
+public class ReadingAnomalyDetector {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingAnomalyDetector.class);
+
+    private final UtilityReadingRepository utilityReadingRepository;
+
+    private final boolean enabled;
+    private final double zThreshold;
+    private final int minSamples;
+    private final int window;
+    private final double alpha;
+
+    private final Map<Long, RoomUsageStats> roomStats = new ConcurrentHashMap<>();
+
+    private final Counter rollbackCounter;
+    private final Counter zeroUsageCounter;
+    private final Counter zScoreCounter;
+
+    public ReadingAnomalyDetector(UtilityReadingRepository utilityReadingRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.reading-anomaly.enabled:true}") boolean enabled,
+                                  @Value("${app.reading-anomaly.z-threshold:3.0}") double zThreshold,
+                                  @Value("${app.reading-anomaly.min-samples:5}") int minSamples,
+                                  @Value("${app.reading-anomaly.window:30}") int window) {
+        this.utilityReadingRepository = utilityReadingRepository;
+        this.enabled = enabled;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.window = window;
+        this.alpha = 2.0 / (window + 1);
+
+        Gauge.builder("reading.anomaly.tracked.rooms", roomStats, Map::size)
+                .description("异常检测中维护统计的房间数")
+                .register(meterRegistry);
+        this.rollbackCounter = meterRegistry.counter("reading.anomalies", "type", "rollback");
+        this.zeroUsageCounter = meterRegistry.counter("reading.anomalies", "type", "zero_usage");
+        this.zScoreCounter = meterRegistry.counter("reading.anomalies", "type", "z_score");
+    }
+
+    /**
+     * 检查一条已计算用量（ReadingUsageCalculator 已设置上次读数和上一条记录日期）、尚未保存的记录，
+     * 返回异常原因（无异常时为空列表）
+     */
+    public List<String> inspect(UtilityReading reading, Room room) {
+        List<String> reasons = new ArrayList<>();
+        if (!enabled) {
+            return reasons;
+        }
+
+        double electricityUsage = toDouble(reading.getElectricityUsage());
+        double waterUsage = toDouble(reading.getWaterUsage());
+        LocalDate previousDate = reading.getPreviousReadingDate();
+        boolean hasPrevious = previousDate != null;
+
+        if (electricityUsage < 0) {
+            reasons.add("电表读数回退");
+        }
+        if (waterUsage < 0) {
+            reasons.add("水表读数回退");
+        }
+        if (!reasons.isEmpty()) {
+            rollbackCounter.increment();
+        }
+
+        if (hasPrevious && room.getRentalStatus() == Room.RentalStatus.RENTED
+                && electricityUsage == 0 && waterUsage == 0) {
+            reasons.add("已出租房间水电用量均为0");
+            zeroUsageCounter.increment();
+        }
+
+        RoomUsageStats stats = statsFor(reading.getRoomId(), reading.getReadingDate());
+        int epochDay = (int) reading.getReadingDate().toEpochDay();
+        long days = hasPrevious ? epochDay - previousDate.toEpochDay() : 0;
+        double electricityRate = hasPrevious ? electricityUsage / days : 0;
+        double waterRate = hasPrevious ? waterUsage / days : 0;
+        boolean sampled = false;
+        synchronized (stats) {
+            // 补录的历史记录只做上面的规则检查，不参与滚动统计
+            if (hasPrevious && epochDay > stats.lastEpochDay) {
+                if (reasons.isEmpty() && stats.samples >= minSamples) {
+                    double electricityZ = zScore(electricityRate, stats.electricityMean, stats.electricityVariance);
+                    double waterZ = zScore(waterRate, stats.waterMean, stats.waterVariance);
+                    if (Math.abs(electricityZ) > zThreshold) {
+                        reasons.add(String.format("日均用电量偏离历史（z=%.1f）", electricityZ));
+                    }
+                    if (Math.abs(waterZ) > zThreshold) {
+                        reasons.add(String.format("日均用水量偏离历史（z=%.1f）", waterZ));
+                    }
+                    if (!reasons.isEmpty()) {
+                        zScoreCounter.increment();
+                    }
+                }
+                sampled = reasons.isEmpty();
+            }
+        }
+
+        // 记录保存成功后再更新统计
+        boolean addSample = sampled;
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (stats) {
+                if (epochDay <= stats.lastEpochDay) {
+                    return;
+                }
+                if (addSample) {
+                    stats.add(electricityRate, waterRate, alpha);
+                }
+                stats.lastEpochDay = epochDay;
+            }
+        });
+
+        if (!reasons.isEmpty()) {
+            log.warn("房间 {} 在 {} 的抄表记录异常: {}", reading.getRoomId(), reading.getReadingDate(), reasons);
+        }
+        return reasons;
+    }
+
+    /**
+     * 房间删除后移除其统计
+     */
+    public void forget(Long roomId) {
+        roomStats.remove(roomId);
+    }
+
+    /**
+     * 获取房间统计，首次出现时用最近的历史记录预热（查询在锁外执行）
+     */
+    private RoomUsageStats statsFor(Long roomId, LocalDate readingDate) {
+        RoomUsageStats stats = roomStats.get(roomId);
+        if (stats != null) {
+            return stats;
+        }
+        RoomUsageStats loaded = new RoomUsageStats();
+        List<Object[]> history = utilityReadingRepository.findRecentUsage(roomId, readingDate, PageRequest.of(0, window + 1));
+        // 结果按日期倒序，从最早一条开始累计；有争议的记录不计入统计，但仍作为下一条记录的用量基准
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Object[] row = history.get(i);
+            int epochDay = (int) ((LocalDate) row[0]).toEpochDay();
+            boolean disputed = UtilityReading.ReadingStatus.DISPUTED.name().equals(row[3]);
+            if (loaded.lastEpochDay != RoomUsageStats.NONE && !disputed) {
+                int days = epochDay - loaded.lastEpochDay;
+                loaded.add(toDouble((BigDecimal) row[1]) / days, toDouble((BigDecimal) row[2]) / days, alpha);
+            }
+            loaded.lastEpochDay = epochDay;
+        }
+        stats = roomStats.putIfAbsent(roomId, loaded);
+        return stats != null ? stats : loaded;
+    }
+
+    /**
+     * z 分数，标准差至少取均值的10%（且不小于0.1），避免用量长期恒定时的微小波动被判为异常
+     */
+    private static double zScore(double value, double mean, double variance) {
+        double std = Math.max(Math.sqrt(variance), Math.max(Math.abs(mean) * 0.1, 0.1));
+        return (value - mean) / std;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    /**
+     * 房间用量滚动统计（指数加权均值和方差），只含基本类型字段
+     */
+    private static final class RoomUsageStats {
+
+        static final int NONE = Integer.MIN_VALUE;
+
+        int lastEpochDay = NONE;
+        int samples;
+        double electricityMean;
+        double electricityVariance;
+        double waterMean;
+        double waterVariance;
+
+        void add(double electricityRate, double waterRate, double alpha) {
+            if (samples == 0) {
+                electricityMean = electricityRate;
+                waterMean = waterRate;
+            } else {
+                double electricityDiff = electricityRate - electricityMean;
+                double electricityIncrement = alpha * electricityDiff;
+                electricityMean += electricityIncrement;
+                electricityVariance = (1 - alpha) * (electricityVariance + electricityDiff * electricityIncrement);
+
+                double waterDiff = waterRate - waterMean;
+                double waterIncrement = alpha * waterDiff;
+                waterMean += waterIncrement;
+                waterVariance = (1 - alpha) * (waterVariance + waterDiff * waterIncrement);
+            }
+            samples++;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReplicaRead;
+import com.example.demo.dto.ReadingTrendDto;
+import com.example.demo.dto.ReadingTrendPoint;
+import com.example.demo.repository.UtilityReadingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 房间读数趋势Service
+ *
+ * 对已确认抄表记录按日期顺序单次流式遍历：按周/月/季度聚合时边读边合并，
+ * LTTB 模式按用电量曲线保留形状特征点，返回点数不超过目标点数。
+ */
+@Service
+public class ReadingTrendService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingTrendService.class);
+
+    /**
+     * LTTB 目标点数上限
+     */
+    private static final int MAX_TARGET_POINTS = 5000;
+
+    @Autowired
+    private UtilityReadingRepository utilityReadingRepository;
+
+    /**
+     * 获取房间读数趋势
+     */
+    @ReplicaRead
+    public ReadingTrendDto getReadingTrend(Long roomId, LocalDate startDate, LocalDate endDate,
+                                           ReadingTrendDto.Downsample downsample, int maxPoints) {
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("开始日期不能晚于结束日期");
+        }
+        if (downsample == ReadingTrendDto.Downsample.LTTB && (maxPoints < 3 || maxPoints > MAX_TARGET_POINTS)) {
+            throw new RuntimeException("目标点数应在 3 到 " + MAX_TARGET_POINTS + " 之间");
+        }
+
+        ReadingTrendDto trend = new ReadingTrendDto();
+        trend.setRoomId(roomId);
+        trend.setStartDate(startDate);
+        trend.setEndDate(endDate);
+        trend.setDownsample(downsample);
+
+        List<ReadingTrendPoint> points = new ArrayList<>();
+        ReadingTrendPoint bucket = null;
+        int sourceCount = 0;
+        try (Stream<Object[]> rows = utilityReadingRepository.streamReadingTrend(roomId, startDate, endDate)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                sourceCount++;
+                LocalDate date = (LocalDate) row[0];
+                if (downsample == ReadingTrendDto.Downsample.NONE || downsample == ReadingTrendDto.Downsample.LTTB) {
+                    ReadingTrendPoint point = new ReadingTrendPoint(date);
+                    accumulate(point, row);
+                    points.add(point);
+                    continue;
+                }
+                LocalDate bucketStart = bucketStart(date, downsample);
+                if (bucket == null || !bucket.getDate().equals(bucketStart)) {
+                    bucket = new ReadingTrendPoint(bucketStart);
+                    points.add(bucket);
+                }
+                accumulate(bucket, row);
+            }
+        }
+
+        if (downsample == ReadingTrendDto.Downsample.LTTB) {
+            points = largestTriangleThreeBuckets(points, maxPoints);
+        }
+        trend.setSourceCount(sourceCount);
+        trend.setPoints(points);
+
+        log.info("获取房间 {} 读数趋势，原始记录 {} 条，降采样方式 {}，返回 {} 个点",
+                roomId, sourceCount, downsample, points.size());
+        return trend;
+    }
+
+    /**
+     * 将一条记录合并进数据点：读数取最新一条（记录按日期正序），用量累加
+     */
+    private static void accumulate(ReadingTrendPoint point, Object[] row) {
+        point.setElectricityReading((BigDecimal) row[1]);
+        point.setWaterReading((BigDecimal) row[2]);
+        point.setHotWaterReading((BigDecimal) row[3]);
+        point.setElectricityUsage(add(point.getElectricityUsage(), (BigDecimal) row[4]));
+        point.setWaterUsage(add(point.getWaterUsage(), (BigDecimal) row[5]));
+        point.setHotWaterUsage(add(point.getHotWaterUsage(), (BigDecimal) row[6]));
+        point.setReadingCount(point.getReadingCount() + 1);
+    }
+
+    private static LocalDate bucketStart(LocalDate date, ReadingTrendDto.Downsample downsample) {
+        switch (downsample) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            case QUARTER:
+                return LocalDate.of(date.getYear(), (date.getMonthValue() - 1) / 3 * 3 + 1, 1);
+            default:
+                return date;
+        }
+    }
+
+    /**
+     * LTTB（Largest-Triangle-Three-Buckets）降采样
+     * 保留首尾两点，其余按等宽分桶，每桶选取与上一选中点、下一桶均值构成三角形面积最大的点。
+     * 横轴为日期，纵轴为用电量。
+     */
+    private static List<ReadingTrendPoint> largestTriangleThreeBuckets(List<ReadingTrendPoint> data, int threshold) {
+        int size = data.size();
+        if (threshold >= size) {
+            return data;
+        }
+
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            ReadingTrendPoint point = data.get(i);
+            x[i] = point.getDate().toEpochDay();
+            y[i] = point.getElectricityUsage() != null ? point.getElectricityUsage().doubleValue() : 0;
+        }
+
+        List<ReadingTrendPoint> sampled = new ArrayList<>(threshold);
+        double every = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        sampled.add(data.get(a));
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // 下一桶的均值点
+            int avgRangeStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgRangeEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgRangeStart; j < avgRangeEnd; j++) {
+                avgX += x[j];
+                avgY += y[j];
+            }
+            int avgRangeLength = avgRangeEnd - avgRangeStart;
+            avgX /= avgRangeLength;
+            avgY /= avgRangeLength;
+
+            // 当前桶中选取三角形面积最大的点
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled.add(data.get(next));
+            a = next;
+        }
+
+        sampled.add(data.get(size - 1));
+        return sampled;
+    }
+
+    private static BigDecimal add(BigDecimal total, BigDecimal value) {
+        if (value == null) {
+            return total;
+        }
+        return total != null ? total.add(value) : value;
+    }
+}
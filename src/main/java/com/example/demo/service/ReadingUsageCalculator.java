@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.repository.UtilityReadingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 抄表记录上次读数与本期用量计算
+ *
+ * 取代数据库触发器：整批记录只查询一次历史（范围内记录 + 前后各一条），
+ * 在内存中按房间、日期排序后依次计算；受影响的后续记录（补录、修改、删除）一并重算。
+ * 必须在事务中调用，已持久化记录的变更由脏检查写回。
+ */
+@Component
+public class ReadingUsageCalculator {
+
+    @Autowired
+    private UtilityReadingRepository utilityReadingRepository;
+
+    /**
+     * 为一批新增或修改的记录计算上次读数和用量，返回因此被重算的其他记录ID
+     */
+    public List<Long> applyPreviousReadings(Collection<UtilityReading> readings) {
+        if (readings.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> roomIds = readings.stream().map(UtilityReading::getRoomId).collect(Collectors.toSet());
+        LocalDate startDate = readings.stream().map(UtilityReading::getReadingDate).min(LocalDate::compareTo).orElseThrow();
+        LocalDate endDate = readings.stream().map(UtilityReading::getReadingDate).max(LocalDate::compareTo).orElseThrow();
+        return recalculate(readings, roomIds, startDate, endDate);
+    }
+
+    /**
+     * 记录被删除或改期后，重算该房间在原日期之后的第一条记录，返回被重算的记录ID
+     */
+    public List<Long> recalculateAfterRemoval(Long roomId, LocalDate readingDate) {
+        return recalculate(List.of(), Set.of(roomId), readingDate, readingDate);
+    }
+
+    private List<Long> recalculate(Collection<UtilityReading> batch, Set<Long> roomIds,
+                                   LocalDate startDate, LocalDate endDate) {
+        // 按房间建立时间线，批内记录覆盖数据库中同一天的旧版本
+        Map<Long, TreeMap<LocalDate, UtilityReading>> timelines = new HashMap<>();
+        for (UtilityReading reading : utilityReadingRepository.findUsageHistory(roomIds, startDate, endDate)) {
+            timelines.computeIfAbsent(reading.getRoomId(), id -> new TreeMap<>()).put(reading.getReadingDate(), reading);
+        }
+        for (UtilityReading reading : batch) {
+            timelines.computeIfAbsent(reading.getRoomId(), id -> new TreeMap<>()).put(reading.getReadingDate(), reading);
+        }
+
+        Set<UtilityReading> batchReadings = Collections.newSetFromMap(new IdentityHashMap<>());
+        batchReadings.addAll(batch);
+
+        List<Long> changedIds = new ArrayList<>();
+        for (TreeMap<LocalDate, UtilityReading> timeline : timelines.values()) {
+            for (Map.Entry<LocalDate, UtilityReading> entry : timeline.tailMap(startDate, true).entrySet()) {
+                Map.Entry<LocalDate, UtilityReading> previous = timeline.lowerEntry(entry.getKey());
+                UtilityReading reading = entry.getValue();
+                boolean changed = applyUsage(reading, previous != null ? previous.getValue() : null);
+                if (changed && reading.getId() != null && !batchReadings.contains(reading)) {
+                    changedIds.add(reading.getId());
+                }
+            }
+        }
+        return changedIds;
+    }
+
+    /**
+     * 根据上一条记录设置上次读数和本期用量，返回是否有变化（上一条记录的日期不入库，不计入变化）
+     */
+    private boolean applyUsage(UtilityReading reading, UtilityReading previous) {
+        reading.setPreviousReadingDate(previous != null ? previous.getReadingDate() : null);
+        BigDecimal electricityPrevious = previous != null ? previous.getElectricityReading() : BigDecimal.ZERO;
+        BigDecimal waterPrevious = previous != null ? previous.getWaterReading() : BigDecimal.ZERO;
+        BigDecimal hotWaterPrevious = previous != null && previous.getHotWaterReading() != null
+                ? previous.getHotWaterReading() : BigDecimal.ZERO;
+
+        BigDecimal electricityUsage = subtract(reading.getElectricityReading(), electricityPrevious);
+        BigDecimal waterUsage = subtract(reading.getWaterReading(), waterPrevious);
+        BigDecimal hotWaterUsage = subtract(reading.getHotWaterReading(), hotWaterPrevious);
+
+        boolean changed = !sameValue(reading.getElectricityPreviousReading(), electricityPrevious)
+                || !sameValue(reading.getElectricityUsage(), electricityUsage)
+                || !sameValue(reading.getWaterPreviousReading(), waterPrevious)
+                || !sameValue(reading.getWaterUsage(), waterUsage)
+                || !sameValue(reading.getHotWaterPreviousReading(), hotWaterPrevious)
+                || !sameValue(reading.getHotWaterUsage(), hotWaterUsage);
+        if (changed) {
+            reading.setElectricityPreviousReading(electricityPrevious);
+            reading.setElectricityUsage(electricityUsage);
+            reading.setWaterPreviousReading(waterPrevious);
+            reading.setWaterUsage(waterUsage);
+            reading.setHotWaterPreviousReading(hotWaterPrevious);
+            reading.setHotWaterUsage(hotWaterUsage);
+        }
+        return changed;
+    }
+
+    private static BigDecimal subtract(BigDecimal current, BigDecimal previous) {
+        return current != null ? current.subtract(previous) : null;
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return Objects.equals(a, b) || (a != null && b != null && a.compareTo(b) == 0);
+    }
+}
@@ -3,26 +3,29 @@ package com.example.demo.service;
 import com.example.demo.dto.RoomDto;
 import com.example.demo.entity.Room;
 import com.example.demo.entity.Building;
-import com.example.demo.entity.UserBuilding;
 import com.example.demo.mapper.RoomMapper;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.BuildingRepository;
-import com.example.demo.repository.UserBuildingRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.BillRepository;
+import com.example.demo.repository.DailyUsageAggregateRepository;
 import com.example.demo.repository.UtilityReadingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class RoomService {
@@ -35,9 +38,6 @@ public class RoomService {
     @Autowired
     private BuildingRepository buildingRepository;
 
-    @Autowired
-    private UserBuildingRepository userBuildingRepository;
-
     @Autowired
     private UserRepository userRepository;
 
@@ -50,10 +50,25 @@ public class RoomService {
     @Autowired
     private RoomMapper roomMapper;
 
+    @Autowired
+    private BillRollupService billRollupService;
+
+    @Autowired
+    private DailyUsageAggregateRepository dailyUsageAggregateRepository;
+
+    @Autowired
+    private ReadingAnomalyDetector readingAnomalyDetector;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BuildingOwnershipIndex buildingOwnershipIndex;
+
     /**
      * 创建房间
      */
-    @CacheEvict(value = {"rooms", "buildings"}, allEntries = true)
+    @CacheEvict(value = "rooms", allEntries = true)
     @Transactional
     public RoomDto createRoom(RoomDto roomDto, Long userId) {
         log.info("创建房间: {}, 用户ID: {}", roomDto.getRoomNumber(), userId);
@@ -63,7 +78,7 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("楼宇不存在"));
 
         // 验证用户是否有权限操作该楼宇
-        if (!userBuildingRepository.existsByUserIdAndBuildingId(userId, roomDto.getBuildingId())) {
+        if (!buildingOwnershipIndex.owns(userId, roomDto.getBuildingId())) {
             throw new RuntimeException("您没有权限在该楼宇中创建房间");
         }
 
@@ -77,6 +92,7 @@ public class RoomService {
         room.setCreatedAt(LocalDateTime.now());
 
         Room savedRoom = roomRepository.save(room);
+        searchIndexService.indexRoom(savedRoom);
         log.info("房间创建成功: {}", savedRoom.getRoomNumber());
 
         return roomMapper.toDtoWithBuilding(savedRoom, building);
@@ -85,20 +101,21 @@ public class RoomService {
     /**
      * 获取所有房间
      */
-    @Cacheable(value = "rooms")
+    @Cacheable(value = "rooms") // 该缓存只保存全量列表这一个条目
+    @Transactional(readOnly = true)
     public List<RoomDto> getAllRooms() {
         log.info("获取所有房间");
-        List<Room> rooms = roomRepository.findAll();
-        return rooms.stream()
-                .map(room -> {
-                    Building building = buildingRepository.findById(room.getBuildingId()).orElse(null);
-                    RoomDto dto = roomMapper.toDtoWithBuilding(room, building);
-                    // 设置创建者用户名
-                    userRepository.findById(room.getCreatedBy())
-                            .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return roomMapper.fromRows(roomRepository.findAllWithBuildingAndCreator());
+    }
+
+    /**
+     * 分页获取房间（可按楼宇过滤）
+     */
+    public Page<RoomDto> getRoomsPage(Long buildingId, int page, int size) {
+        log.info("分页获取房间，楼宇ID: {}, 页码: {}, 每页: {}", buildingId, page, size);
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id").ascending());
+        return roomRepository.findPageWithBuildingAndCreator(buildingId, pageable)
+                .map(roomMapper::fromRow);
     }
 
     /**
@@ -122,18 +139,7 @@ public class RoomService {
      */
     public List<RoomDto> getRoomsByBuildingId(Long buildingId) {
         log.info("根据楼宇ID获取房间列表: {}", buildingId);
-        Building building = buildingRepository.findById(buildingId).orElse(null);
-        List<Room> rooms = roomRepository.findByBuildingId(buildingId);
-        
-        return rooms.stream()
-                .map(room -> {
-                    RoomDto dto = roomMapper.toDtoWithBuilding(room, building);
-                    // 设置创建者用户名
-                    userRepository.findById(room.getCreatedBy())
-                            .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return roomMapper.fromRows(roomRepository.findByBuildingIdInWithBuildingAndCreator(List.of(buildingId)));
     }
 
     /**
@@ -143,32 +149,19 @@ public class RoomService {
         log.info("根据用户ID获取房间列表: {}", userId);
         
         // 获取用户有权限的楼宇ID列表
-        List<Long> buildingIds = userBuildingRepository.findByUserId(userId)
-                .stream()
-                .map(UserBuilding::getBuildingId)
-                .collect(Collectors.toList());
+        List<Long> buildingIds = buildingOwnershipIndex.getBuildingIds(userId);
         
         if (buildingIds.isEmpty()) {
             return List.of();
         }
         
-        List<Room> rooms = roomRepository.findByBuildingIdIn(buildingIds);
-        return rooms.stream()
-                .map(room -> {
-                    Building building = buildingRepository.findById(room.getBuildingId()).orElse(null);
-                    RoomDto dto = roomMapper.toDtoWithBuilding(room, building);
-                    // 设置创建者用户名
-                    userRepository.findById(room.getCreatedBy())
-                            .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        return roomMapper.fromRows(roomRepository.findByBuildingIdInWithBuildingAndCreator(buildingIds));
     }
 
     /**
      * 更新房间
      */
-    @CacheEvict(value = {"rooms", "buildings"}, allEntries = true)
+    @CacheEvict(value = "rooms", allEntries = true)
     @Transactional
     public RoomDto updateRoom(Long id, RoomDto roomDto, Long userId) {
         log.info("更新房间: {}, 用户ID: {}", id, userId);
@@ -177,7 +170,7 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("房间不存在"));
 
         // 验证用户是否有权限操作该楼宇
-        if (!userBuildingRepository.existsByUserIdAndBuildingId(userId, existingRoom.getBuildingId())) {
+        if (!buildingOwnershipIndex.owns(userId, existingRoom.getBuildingId())) {
             throw new RuntimeException("您没有权限修改该房间");
         }
 
@@ -188,10 +181,19 @@ public class RoomService {
             }
         }
 
+        Long originalBuildingId = existingRoom.getBuildingId();
         roomMapper.updateEntityFromDto(roomDto, existingRoom);
         existingRoom.setUpdatedAt(LocalDateTime.now());
 
         Room updatedRoom = roomRepository.save(existingRoom);
+        searchIndexService.indexRoom(updatedRoom);
+
+        // 房间改换楼宇后，其账单在原楼宇和新楼宇下的月度汇总都需要刷新
+        if (!originalBuildingId.equals(updatedRoom.getBuildingId())) {
+            billRollupService.refreshForMonths(billRepository.findBillMonthsByRoomId(id),
+                    List.of(originalBuildingId, updatedRoom.getBuildingId()));
+            dailyUsageAggregateRepository.updateBuildingIdByRoomId(id, updatedRoom.getBuildingId());
+        }
         Building building = buildingRepository.findById(updatedRoom.getBuildingId()).orElse(null);
         
         log.info("房间更新成功: {}", updatedRoom.getRoomNumber());
@@ -201,7 +203,12 @@ public class RoomService {
     /**
      * 删除房间
      */
-    @CacheEvict(value = {"rooms", "buildings"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "rooms", allEntries = true),
+            @CacheEvict(value = "roomReadings", key = "#id"),
+            // 房间的抄表记录随房间一并删除，按ID缓存的记录无法逐条定位，整体失效（删除房间为低频操作）
+            @CacheEvict(value = "utilityReadings", allEntries = true)
+    })
     @Transactional
     public void deleteRoom(Long id, Long userId) {
         log.info("删除房间: {}, 用户ID: {}", id, userId);
@@ -210,22 +217,23 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("房间不存在"));
 
         // 验证用户是否有权限操作该楼宇
-        if (!userBuildingRepository.existsByUserIdAndBuildingId(userId, room.getBuildingId())) {
+        if (!buildingOwnershipIndex.owns(userId, room.getBuildingId())) {
             throw new RuntimeException("您没有权限删除该房间");
         }
 
         // 检查并删除相关数据
-        deleteRoomRelatedData(id);
+        deleteRoomRelatedData(id, room.getBuildingId());
 
         // 删除房间
         roomRepository.delete(room);
+        searchIndexService.removeRoom(id);
         log.info("房间删除成功: {}", room.getRoomNumber());
     }
 
     /**
      * 删除房间相关数据
      */
-    private void deleteRoomRelatedData(Long roomId) {
+    private void deleteRoomRelatedData(Long roomId, Long buildingId) {
         log.info("开始删除房间 {} 的相关数据", roomId);
 
         // 删除水电表记录（先删除，因为可能有外键约束问题）
@@ -234,11 +242,15 @@ public class RoomService {
             utilityReadingRepository.deleteByRoomId(roomId);
             log.info("删除房间 {} 的水电表记录 {} 条", roomId, utilityReadingCount);
         }
+        dailyUsageAggregateRepository.deleteByRoomId(roomId);
+        readingAnomalyDetector.forget(roomId);
 
-        // 删除账单
+        // 删除账单，并刷新涉及月份的楼宇汇总
         long billCount = billRepository.countByRoomId(roomId);
         if (billCount > 0) {
+            List<String> billMonths = billRepository.findBillMonthsByRoomId(roomId);
             billRepository.deleteByRoomId(roomId);
+            billRollupService.refreshForMonths(billMonths, List.of(buildingId));
             log.info("删除房间 {} 的账单 {} 条", roomId, billCount);
         }
 
@@ -250,17 +262,12 @@ public class RoomService {
      */
     public List<RoomDto> searchRooms(String keyword) {
         log.info("搜索房间: {}", keyword);
-        List<Room> rooms = roomRepository.searchRooms(keyword);
-        return rooms.stream()
-                .map(room -> {
-                    Building building = buildingRepository.findById(room.getBuildingId()).orElse(null);
-                    RoomDto dto = roomMapper.toDtoWithBuilding(room, building);
-                    // 设置创建者用户名
-                    userRepository.findById(room.getCreatedBy())
-                            .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<Long> ids = searchIndexService.searchRooms(keyword);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return SearchIndexService.inRankOrder(ids,
+                roomMapper.fromRows(roomRepository.findByIdInWithBuildingAndCreator(ids)), RoomDto::getId);
     }
 
     /**
@@ -273,7 +280,7 @@ public class RoomService {
     /**
      * 更新房间出租状态
      */
-    @CacheEvict(value = {"rooms", "buildings"}, allEntries = true)
+    @CacheEvict(value = "rooms", allEntries = true)
     @Transactional
     public RoomDto updateRoomRentalStatus(Long id, Room.RentalStatus rentalStatus, Long userId) {
         log.info("更新房间出租状态: {}, 新状态: {}, 用户ID: {}", id, rentalStatus, userId);
@@ -282,7 +289,7 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("房间不存在"));
 
         // 验证用户是否有权限操作该楼宇
-        if (!userBuildingRepository.existsByUserIdAndBuildingId(userId, room.getBuildingId())) {
+        if (!buildingOwnershipIndex.owns(userId, room.getBuildingId())) {
             throw new RuntimeException("您没有权限修改该房间的出租状态");
         }
 
@@ -0,0 +1,264 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.SuggestionDto;
+import com.example.demo.entity.Building;
+import com.example.demo.entity.Room;
+import com.example.demo.entity.User;
+import com.example.demo.repository.BuildingRepository;
+import com.example.demo.repository.RoomRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.NGramIndex;
+import com.example.demo.util.PrefixSuggestIndex;
+import com.example.demo.util.TransactionCallbacks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 搜索索引Service
+ *
+ * 在内存中为楼宇（楼宇名称、房东姓名）、房间（房号）、用户（用户名、姓名、邮箱、手机号）维护 n-gram 倒排索引，
+ * 替代 LIKE '%关键词%' 全表扫描。应用启动后全量构建，业务Service写入时增量更新（事务提交后生效）。
+ * 增量更新只覆盖本实例的写入，另按固定间隔全量重建，补上其他实例的写入和构建期间提交的写入。
+ * 搜索只返回按相关度排序的ID，再由各Service按ID批量加载实体。
+ *
+ * 另按楼宇分区维护楼宇名称、房号、房东姓名的前缀联想索引，联想查询只访问用户拥有的楼宇，
+ * 直接由内存数据组装结果，不访问数据库。
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    /**
+     * 片段长度取2：楼宇名称、姓名多为中文，两个字的关键词也能走倒排表
+     */
+    private static final int GRAM_SIZE = 2;
+
+    private final NGramIndex buildingIndex = new NGramIndex(GRAM_SIZE, 2.0, 1.0);
+    private final NGramIndex roomIndex = new NGramIndex(GRAM_SIZE, 1.0);
+    private final NGramIndex userIndex = new NGramIndex(GRAM_SIZE, 2.0, 1.5, 1.0, 1.0);
+
+    private final PrefixSuggestIndex buildingNameSuggestions = new PrefixSuggestIndex();
+    private final PrefixSuggestIndex roomNumberSuggestions = new PrefixSuggestIndex();
+    private final PrefixSuggestIndex landlordSuggestions = new PrefixSuggestIndex();
+
+    @Autowired
+    private BuildingRepository buildingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.search.max-results:200}")
+    private int maxResults;
+
+    private Timer suggestTimer;
+
+    @PostConstruct
+    public void init() {
+        suggestTimer = Timer.builder("search.suggest")
+                .description("搜索联想耗时")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动后全量构建索引，之后定时重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval-ms:600000}",
+               initialDelayString = "${app.search.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        long startTime = System.currentTimeMillis();
+
+        List<Object[]> buildingRows = buildingRepository.findSearchFields();
+        List<PrefixSuggestIndex.Match> buildingNames = new ArrayList<>(buildingRows.size());
+        List<PrefixSuggestIndex.Match> landlordNames = new ArrayList<>(buildingRows.size());
+        for (Object[] row : buildingRows) {
+            Long id = (Long) row[0];
+            buildingNames.add(new PrefixSuggestIndex.Match(id, id, (String) row[1]));
+            landlordNames.add(new PrefixSuggestIndex.Match(id, id, (String) row[2]));
+        }
+        buildingIndex.replaceAll(toDocuments(buildingRows));
+        buildingNameSuggestions.replaceAll(buildingNames);
+        landlordSuggestions.replaceAll(landlordNames);
+
+        List<Object[]> roomRows = roomRepository.findSearchFields();
+        Map<Long, String[]> roomDocuments = new HashMap<>(roomRows.size() * 2);
+        List<PrefixSuggestIndex.Match> roomNumbers = new ArrayList<>(roomRows.size());
+        for (Object[] row : roomRows) {
+            Long id = (Long) row[0];
+            roomDocuments.put(id, new String[]{(String) row[1]});
+            roomNumbers.add(new PrefixSuggestIndex.Match((Long) row[2], id, (String) row[1]));
+        }
+        roomIndex.replaceAll(roomDocuments);
+        roomNumberSuggestions.replaceAll(roomNumbers);
+
+        userIndex.replaceAll(toDocuments(userRepository.findSearchFields()));
+        log.info("搜索索引构建完成，楼宇 {} 个，房间 {} 个，用户 {} 个，耗时: {} ms",
+                buildingIndex.size(), roomIndex.size(), userIndex.size(), System.currentTimeMillis() - startTime);
+    }
+
+    public void indexBuilding(Building building) {
+        Long id = building.getId();
+        String buildingName = building.getBuildingName();
+        String landlordName = building.getLandlordName();
+        TransactionCallbacks.afterCommit(() -> {
+            buildingIndex.put(id, buildingName, landlordName);
+            buildingNameSuggestions.put(id, id, buildingName);
+            landlordSuggestions.put(id, id, landlordName);
+        });
+    }
+
+    /**
+     * 删除楼宇，其房间由数据库级联删除，一并移出索引
+     */
+    public void removeBuilding(Long buildingId, Collection<Long> roomIds) {
+        List<Long> ids = new ArrayList<>(roomIds);
+        TransactionCallbacks.afterCommit(() -> {
+            buildingIndex.remove(buildingId);
+            ids.forEach(roomIndex::remove);
+            buildingNameSuggestions.removePartition(buildingId);
+            landlordSuggestions.removePartition(buildingId);
+            roomNumberSuggestions.removePartition(buildingId);
+        });
+    }
+
+    public void indexRoom(Room room) {
+        Long id = room.getId();
+        String roomNumber = room.getRoomNumber();
+        Long buildingId = room.getBuildingId();
+        TransactionCallbacks.afterCommit(() -> {
+            roomIndex.put(id, roomNumber);
+            roomNumberSuggestions.put(buildingId, id, roomNumber);
+        });
+    }
+
+    public void removeRoom(Long roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            roomIndex.remove(roomId);
+            roomNumberSuggestions.remove(roomId);
+        });
+    }
+
+    public void indexUser(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        String fullName = user.getFullName();
+        String email = user.getEmail();
+        String phone = user.getPhone();
+        TransactionCallbacks.afterCommit(() -> userIndex.put(id, username, fullName, email, phone));
+    }
+
+    public void removeUser(Long userId) {
+        TransactionCallbacks.afterCommit(() -> userIndex.remove(userId));
+    }
+
+    public List<Long> searchBuildings(String keyword) {
+        return buildingIndex.search(keyword, maxResults);
+    }
+
+    public List<Long> searchRooms(String keyword) {
+        return roomIndex.search(keyword, maxResults);
+    }
+
+    public List<Long> searchUsers(String keyword) {
+        return userIndex.search(keyword, maxResults);
+    }
+
+    /**
+     * 在给定楼宇范围内按前缀联想，type 为空时合并三种类型，按文本排序返回最多 limit 个
+     */
+    public List<SuggestionDto> suggest(String prefix, SuggestionDto.Type type, Collection<Long> buildingIds, int limit) {
+        long startTime = System.nanoTime();
+        List<SuggestionDto> suggestions = new ArrayList<>();
+        if (buildingIds.isEmpty()) {
+            return suggestions;
+        }
+        if (type == null || type == SuggestionDto.Type.BUILDING) {
+            addSuggestions(suggestions, SuggestionDto.Type.BUILDING, buildingNameSuggestions.suggest(prefix, buildingIds, limit));
+        }
+        if (type == null || type == SuggestionDto.Type.ROOM) {
+            addSuggestions(suggestions, SuggestionDto.Type.ROOM, roomNumberSuggestions.suggest(prefix, buildingIds, limit));
+        }
+        if (type == null || type == SuggestionDto.Type.LANDLORD) {
+            addSuggestions(suggestions, SuggestionDto.Type.LANDLORD, landlordSuggestions.suggest(prefix, buildingIds, limit));
+        }
+        if (type == null) {
+            suggestions.sort(Comparator.comparing((SuggestionDto suggestion) -> suggestion.getText().toLowerCase(Locale.ROOT))
+                    .thenComparing(SuggestionDto::getType));
+            if (suggestions.size() > limit) {
+                suggestions = new ArrayList<>(suggestions.subList(0, limit));
+            }
+        }
+        suggestTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    private void addSuggestions(List<SuggestionDto> target, SuggestionDto.Type type, List<PrefixSuggestIndex.Match> matches) {
+        for (PrefixSuggestIndex.Match match : matches) {
+            Long buildingId = match.getPartition();
+            target.add(new SuggestionDto(type, match.getId(), match.getText(), buildingId,
+                    buildingNameSuggestions.textOf(buildingId)));
+        }
+    }
+
+    /**
+     * 将按ID批量加载的结果恢复为搜索排序（已不存在的ID被跳过）
+     */
+    public static <T> List<T> inRankOrder(List<Long> rankedIds, Collection<T> items, Function<T, Long> idGetter) {
+        Map<Long, T> byId = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            byId.put(idGetter.apply(item), item);
+        }
+        List<T> result = new ArrayList<>(byId.size());
+        for (Long id : rankedIds) {
+            T item = byId.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * [id, 字段1, 字段2, ...] 行转换为索引文档
+     */
+    private static Map<Long, String[]> toDocuments(List<Object[]> rows) {
+        Map<Long, String[]> documents = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            String[] fields = new String[row.length - 1];
+            for (int i = 1; i < row.length; i++) {
+                fields[i - 1] = (String) row[i];
+            }
+            documents.put((Long) row[0], fields);
+        }
+        return documents;
+    }
+}
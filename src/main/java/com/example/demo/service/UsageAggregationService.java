@@ -0,0 +1,217 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ReplicaRead;
+import com.example.demo.dto.UsageStatisticsDto;
+import com.example.demo.entity.DailyUsageAggregate;
+import com.example.demo.event.UtilityReadingChangedEvent;
+import com.example.demo.repository.DailyUsageAggregateRepository;
+import com.example.demo.repository.UtilityReadingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 每日用量汇总Service
+ *
+ * 抄表记录变更后登记受影响的房间和日期范围，由定时任务批量重算对应的汇总行；
+ * 另有每日任务重算最近一段时间，兜底未通过本实例写入的变更。
+ * 用量统计查询只对汇总表按日期范围求和。
+ */
+@Service
+public class UsageAggregationService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsageAggregationService.class);
+
+    /**
+     * 重建时每写入多少行清理一次持久化上下文
+     */
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private DailyUsageAggregateRepository dailyUsageAggregateRepository;
+
+    @Autowired
+    private UtilityReadingRepository utilityReadingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.usage-aggregation.lookback-days:62}")
+    private int lookbackDays;
+
+    /**
+     * 待重算的房间 -> [最早变更日期, 最晚变更日期]
+     */
+    private final Map<Long, LocalDate[]> dirtyRooms = new ConcurrentHashMap<>();
+
+    /**
+     * 抄表记录变更事务提交后登记待重算范围
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUtilityReadingChanged(UtilityReadingChangedEvent event) {
+        LocalDate min = event.getReadingDates().stream().min(LocalDate::compareTo).orElse(null);
+        LocalDate max = event.getReadingDates().stream().max(LocalDate::compareTo).orElse(null);
+        if (min == null) {
+            return;
+        }
+        dirtyRooms.merge(event.getRoomId(), new LocalDate[]{min, max}, (a, b) -> new LocalDate[]{
+                a[0].isBefore(b[0]) ? a[0] : b[0],
+                a[1].isAfter(b[1]) ? a[1] : b[1]});
+    }
+
+    /**
+     * 定时重算已登记房间的汇总行
+     * 变更记录之后的第一条记录的用量也随之变化，重算范围延伸到该记录
+     */
+    @Scheduled(fixedDelayString = "${app.usage-aggregation.refresh-interval-ms:60000}")
+    public void refreshDirtyRooms() {
+        if (dirtyRooms.isEmpty()) {
+            return;
+        }
+        int refreshed = 0;
+        for (Long roomId : new ArrayList<>(dirtyRooms.keySet())) {
+            LocalDate[] range = dirtyRooms.remove(roomId);
+            if (range == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDate next = utilityReadingRepository.findNextReadingDate(roomId, range[1]);
+                    recompute(roomId, range[0], next != null ? next : range[1]);
+                });
+                refreshed++;
+            } catch (RuntimeException e) {
+                // 放回队列，下次重试
+                onUtilityReadingChanged(new UtilityReadingChangedEvent(roomId, List.of(range[0], range[1])));
+                log.error("重算房间 {} 的每日用量汇总失败", roomId, e);
+            }
+        }
+        log.info("每日用量汇总已重算 {} 个房间", refreshed);
+    }
+
+    /**
+     * 每日重算最近一段时间的全部汇总行
+     */
+    @Scheduled(cron = "${app.usage-aggregation.cron:0 30 2 * * *}")
+    public void refreshRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(lookbackDays), today);
+    }
+
+    /**
+     * 重建日期范围内全部房间的汇总行，返回写入行数
+     */
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new RuntimeException("开始日期不能晚于结束日期");
+        }
+        long startTime = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> recompute(null, startDate, endDate));
+        log.info("每日用量汇总重建完成，日期范围: {} - {}, 写入 {} 行，耗时: {} ms",
+                startDate, endDate, rows, System.currentTimeMillis() - startTime);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 房间用量统计
+     */
+    @ReplicaRead
+    public UsageStatisticsDto getRoomUsageStatistics(Long roomId, LocalDate startDate, LocalDate endDate) {
+        UsageStatisticsDto dto = toStatistics(dailyUsageAggregateRepository.sumByRoom(roomId, startDate, endDate));
+        dto.setRoomId(roomId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    /**
+     * 楼宇用量统计
+     */
+    @ReplicaRead
+    public UsageStatisticsDto getBuildingUsageStatistics(Long buildingId, LocalDate startDate, LocalDate endDate) {
+        UsageStatisticsDto dto = toStatistics(dailyUsageAggregateRepository.sumByBuilding(buildingId, startDate, endDate));
+        dto.setBuildingId(buildingId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    /**
+     * 删除范围内的汇总行并按抄表记录重新聚合写入（房间ID为空时处理全部房间），需在事务中调用
+     */
+    private int recompute(Long roomId, LocalDate startDate, LocalDate endDate) {
+        dailyUsageAggregateRepository.deleteRange(roomId, startDate, endDate);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DailyUsageAggregate> chunk = new ArrayList<>(REBUILD_CHUNK_SIZE);
+        int count = 0;
+        try (Stream<Object[]> rows = utilityReadingRepository.streamDailyUsage(roomId, startDate, endDate)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                DailyUsageAggregate aggregate = new DailyUsageAggregate();
+                aggregate.setRoomId((Long) row[0]);
+                aggregate.setBuildingId((Long) row[1]);
+                aggregate.setUsageDate((LocalDate) row[2]);
+                aggregate.setElectricityUsage((BigDecimal) row[3]);
+                aggregate.setWaterUsage((BigDecimal) row[4]);
+                aggregate.setHotWaterUsage((BigDecimal) row[5]);
+                aggregate.setReadingCount((Long) row[6]);
+                aggregate.setUpdatedAt(now);
+                chunk.add(aggregate);
+                count++;
+
+                if (chunk.size() == REBUILD_CHUNK_SIZE) {
+                    flushChunk(chunk);
+                }
+            }
+        }
+        flushChunk(chunk);
+        return count;
+    }
+
+    private void flushChunk(List<DailyUsageAggregate> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        dailyUsageAggregateRepository.saveAll(chunk);
+        entityManager.flush();
+        for (DailyUsageAggregate aggregate : chunk) {
+            entityManager.detach(aggregate);
+        }
+        chunk.clear();
+    }
+
+    private static UsageStatisticsDto toStatistics(List<Object[]> rows) {
+        Object[] row = rows.get(0);
+        UsageStatisticsDto dto = new UsageStatisticsDto();
+        dto.setTotalElectricityUsage((BigDecimal) row[0]);
+        dto.setTotalWaterUsage((BigDecimal) row[1]);
+        dto.setTotalHotWaterUsage((BigDecimal) row[2]);
+        dto.setRoomCount((Long) row[3]);
+        dto.setReadingCount(((Number) row[4]).longValue());
+        return dto;
+    }
+}
@@ -5,10 +5,13 @@ import com.example.demo.dto.UserRegistrationDto;
 import com.example.demo.entity.User;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CacheHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,11 +29,19 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CacheHelper cacheHelper;
+    private final SearchIndexService searchIndexService;
+    private final BuildingOwnershipIndex buildingOwnershipIndex;
     
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       CacheHelper cacheHelper, SearchIndexService searchIndexService,
+                       BuildingOwnershipIndex buildingOwnershipIndex) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.cacheHelper = cacheHelper;
+        this.searchIndexService = searchIndexService;
+        this.buildingOwnershipIndex = buildingOwnershipIndex;
     }
     
     /**
@@ -39,7 +50,10 @@ public class UserService {
      * @return 注册成功的用户信息
      */
     @Transactional
-    @CacheEvict(value = {"users", "activeUsers"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#registrationDto.username"),
+            @CacheEvict(value = {"allUsers", "activeUsers"}, allEntries = true)
+    })
     public UserDto registerUser(UserRegistrationDto registrationDto) {
         log.info("用户注册: {}", registrationDto.getUsername());
         
@@ -64,6 +78,7 @@ public class UserService {
         user.setRoles(java.util.Set.of("USER")); // 默认角色为USER
         
         User savedUser = userRepository.save(user);
+        searchIndexService.indexUser(savedUser);
         log.info("用户注册成功: {}", savedUser.getUsername());
         
         return userMapper.toDto(savedUser);
@@ -114,7 +129,7 @@ public class UserService {
      * 获取所有用户
      * @return 所有用户列表
      */
-    @Cacheable(value = "users")
+    @Cacheable(value = "allUsers")
     public List<UserDto> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(userMapper::toDto)
@@ -146,10 +161,18 @@ public class UserService {
     
     public List<UserDto> searchUsers(String keyword) {
         log.info("搜索用户，关键词: {}", keyword);
-        return userMapper.toDtoList(userRepository.searchUsers(keyword));
+        List<Long> ids = searchIndexService.searchUsers(keyword);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userMapper.toDtoList(
+                SearchIndexService.inRankOrder(ids, userRepository.findAllById(ids), User::getId));
     }
     
-    @CacheEvict(value = {"users", "activeUsers"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#userDto.username"),
+            @CacheEvict(value = {"allUsers", "activeUsers"}, allEntries = true)
+    })
     public UserDto createUser(UserDto userDto) {
         log.info("创建新用户: {}", userDto.getUsername());
         
@@ -165,15 +188,20 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(userDto.getPassword()));
         
         User savedUser = userRepository.save(user);
+        searchIndexService.indexUser(savedUser);
         return userMapper.toDto(savedUser);
     }
     
-    @CacheEvict(value = {"users", "activeUsers"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#id"),
+            @CacheEvict(value = {"allUsers", "activeUsers"}, allEntries = true)
+    })
     public UserDto updateUser(Long id, UserDto userDto) {
         log.info("更新用户，ID: {}", id);
         
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("用户不存在"));
+        String oldUsername = user.getUsername();
         
         // 手动更新用户属性
         if (userDto.getUsername() != null) {
@@ -197,13 +225,34 @@ public class UserService {
         }
         
         User savedUser = userRepository.save(user);
+        searchIndexService.indexUser(savedUser);
+
+        // 按用户名缓存的条目：旧用户名和新用户名都需要失效
+        cacheHelper.evict("users", oldUsername);
+        cacheHelper.evict("userPrincipals", oldUsername);
+        if (!oldUsername.equals(savedUser.getUsername())) {
+            cacheHelper.evict("users", savedUser.getUsername());
+            // 房间列表中包含创建者用户名
+            cacheHelper.evict("rooms", SimpleKey.EMPTY);
+        }
         return userMapper.toDto(savedUser);
     }
     
-    @CacheEvict(value = {"users", "activeUsers"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "users", key = "#id"),
+            @CacheEvict(value = {"allUsers", "activeUsers"}, allEntries = true)
+    })
     public void deleteUser(Long id) {
         log.info("删除用户，ID: {}", id);
+        userRepository.findById(id)
+                .ifPresent(user -> {
+                    cacheHelper.evict("users", user.getUsername());
+                    cacheHelper.evict("userPrincipals", user.getUsername());
+                });
         userRepository.deleteById(id);
+        searchIndexService.removeUser(id);
+        // 用户楼宇关联由数据库级联删除
+        buildingOwnershipIndex.invalidateUser(id);
     }
     
     public long countActiveUsers() {
@@ -1,35 +1,61 @@
 package com.example.demo.service;
 
+import com.example.demo.config.ReplicaRead;
+import com.example.demo.dto.BatchReadingImportResult;
 import com.example.demo.dto.CreateUtilityReadingRequest;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.UsageStatisticsDto;
 import com.example.demo.dto.UtilityReadingDto;
 import com.example.demo.dto.UtilityReadingQueryDto;
 import com.example.demo.entity.Building;
 import com.example.demo.entity.Room;
 import com.example.demo.entity.UtilityReading;
+import com.example.demo.event.UtilityReadingChangedEvent;
 import com.example.demo.repository.BuildingRepository;
 import com.example.demo.repository.RoomRepository;
 import com.example.demo.repository.UtilityReadingRepository;
+import com.example.demo.util.CacheHelper;
+import com.example.demo.util.CsvUtils;
+import com.example.demo.util.CursorCodec;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 水电表记录服务
@@ -39,6 +65,11 @@ public class UtilityReadingService {
 
     private static final Logger log = LoggerFactory.getLogger(UtilityReadingService.class);
 
+    /**
+     * 单次批量导入的最大行数
+     */
+    public static final int MAX_IMPORT_ROWS = 5000;
+
     @Autowired
     private UtilityReadingRepository utilityReadingRepository;
 
@@ -48,12 +79,30 @@ public class UtilityReadingService {
     @Autowired
     private BuildingRepository buildingRepository;
 
+    @Autowired
+    private CacheHelper cacheHelper;
+
+    @Autowired
+    private ReadingUsageCalculator readingUsageCalculator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UsageAggregationService usageAggregationService;
+
+    @Autowired
+    private ReadingAnomalyDetector readingAnomalyDetector;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * 创建水电表记录
      */
-    @CacheEvict(value = {"utilityReadings", "roomReadings"}, allEntries = true)
+    @CacheEvict(value = "roomReadings", key = "#request.roomId")
     @Transactional
     public UtilityReadingDto createReading(CreateUtilityReadingRequest request, Long userId) {
         log.info("创建水电表记录，房间ID: {}, 用户ID: {}", request.getRoomId(), userId);
@@ -62,7 +111,127 @@ public class UtilityReadingService {
         Room room = roomRepository.findById(request.getRoomId())
                 .orElseThrow(() -> new RuntimeException("房间不存在"));
 
-        // 创建水电表记录
+        // 创建水电表记录，并计算上次读数和本期用量
+        UtilityReading reading = buildReading(request, userId);
+        List<Long> recalculatedIds = readingUsageCalculator.applyPreviousReadings(List.of(reading));
+
+        // 异常检测：读数回退、已出租房间零用量、用量偏离历史的记录标记为有争议
+        List<String> anomalies = readingAnomalyDetector.inspect(reading, room);
+        if (!anomalies.isEmpty()) {
+            reading.setReadingStatus(UtilityReading.ReadingStatus.DISPUTED);
+            String anomalyNote = "系统检测异常：" + String.join("；", anomalies);
+            reading.setNotes(reading.getNotes() == null || reading.getNotes().isBlank()
+                    ? anomalyNote : reading.getNotes() + "\n" + anomalyNote);
+        }
+
+        UtilityReading savedReading = utilityReadingRepository.save(reading);
+        cacheHelper.evictAll("utilityReadings", recalculatedIds);
+        eventPublisher.publishEvent(new UtilityReadingChangedEvent(savedReading.getRoomId(), List.of(savedReading.getReadingDate())));
+        log.info("水电表记录创建成功，ID: {}", savedReading.getId());
+
+        return convertToDto(savedReading);
+    }
+
+    /**
+     * 批量导入水电表记录
+     *
+     * 房间存在性和(房间, 日期)重复各用一次查询校验，校验通过的行批量插入，
+     * 未通过的行逐行记录原因，不影响其他行导入。
+     */
+    @Transactional
+    public BatchReadingImportResult importReadings(List<CreateUtilityReadingRequest> requests, Long userId) {
+        long startTime = System.currentTimeMillis();
+        if (requests.size() > MAX_IMPORT_ROWS) {
+            throw new RuntimeException("单次最多导入 " + MAX_IMPORT_ROWS + " 条记录");
+        }
+        log.info("批量导入水电表记录，行数: {}, 用户ID: {}", requests.size(), userId);
+        BatchReadingImportResult result = new BatchReadingImportResult(requests.size());
+
+        // 一次查询校验房间是否存在
+        Set<Long> requestedRoomIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(CreateUtilityReadingRequest::getRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRoomIds = requestedRoomIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(roomRepository.findExistingIds(requestedRoomIds));
+
+        // 一次查询取出日期范围内已有的(房间, 日期)，用于判重
+        Set<String> takenRoomDates = new HashSet<>();
+        LocalDate minDate = requests.stream().filter(Objects::nonNull).map(CreateUtilityReadingRequest::getReadingDate)
+                .filter(Objects::nonNull).min(LocalDate::compareTo).orElse(null);
+        LocalDate maxDate = requests.stream().filter(Objects::nonNull).map(CreateUtilityReadingRequest::getReadingDate)
+                .filter(Objects::nonNull).max(LocalDate::compareTo).orElse(null);
+        if (!existingRoomIds.isEmpty() && minDate != null) {
+            for (Object[] pair : utilityReadingRepository.findRoomDatePairs(existingRoomIds, minDate, maxDate)) {
+                takenRoomDates.add(pair[0] + "|" + pair[1]);
+            }
+        }
+
+        List<UtilityReading> readings = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateUtilityReadingRequest request = requests.get(i);
+            int rowNumber = i + 1;
+
+            String error = validateImportRow(request, existingRoomIds);
+            if (error != null) {
+                result.addFailure(rowNumber, error);
+                continue;
+            }
+            if (!takenRoomDates.add(request.getRoomId() + "|" + request.getReadingDate())) {
+                result.addFailure(rowNumber, "该房间在 " + request.getReadingDate() + " 已有抄表记录");
+                continue;
+            }
+            readings.add(buildReading(request, userId));
+        }
+
+        // 整批计算上次读数和本期用量（一次查询），再批量插入（序列主键 + hibernate.jdbc.batch_size）
+        List<Long> recalculatedIds = readingUsageCalculator.applyPreviousReadings(readings);
+        utilityReadingRepository.saveAll(readings);
+        cacheHelper.evictAll("roomReadings", readings.stream().map(UtilityReading::getRoomId).collect(Collectors.toSet()));
+        cacheHelper.evictAll("utilityReadings", recalculatedIds);
+        readings.stream()
+                .collect(Collectors.groupingBy(UtilityReading::getRoomId,
+                        Collectors.mapping(UtilityReading::getReadingDate, Collectors.toSet())))
+                .forEach((roomId, dates) -> eventPublisher.publishEvent(new UtilityReadingChangedEvent(roomId, dates)));
+
+        result.setCreatedCount(readings.size());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.info("水电表记录批量导入完成，总行数: {}, 成功: {}, 失败: {}, 耗时: {} ms",
+                result.getTotalRows(), result.getCreatedCount(), result.getFailedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 校验单行导入数据，返回错误原因，通过时返回null
+     */
+    private String validateImportRow(CreateUtilityReadingRequest request, Set<Long> existingRoomIds) {
+        if (request == null) {
+            return "数据格式错误";
+        }
+        if (request.getRoomId() == null) {
+            return "房间ID不能为空";
+        }
+        if (!existingRoomIds.contains(request.getRoomId())) {
+            return "房间不存在";
+        }
+        if (request.getReadingDate() == null) {
+            return "抄表日期不能为空";
+        }
+        if (request.getElectricityReading() == null || request.getWaterReading() == null) {
+            return "电表和水表读数不能为空";
+        }
+        if (request.getMeterReader() == null || request.getMeterReader().isBlank()) {
+            return "抄表人不能为空";
+        }
+        return null;
+    }
+
+    /**
+     * 根据请求构建水电表记录实体
+     */
+    private UtilityReading buildReading(CreateUtilityReadingRequest request, Long userId) {
         UtilityReading reading = new UtilityReading();
         reading.setRoomId(request.getRoomId());
         reading.setReadingDate(request.getReadingDate());
@@ -76,12 +245,7 @@ public class UtilityReadingService {
         reading.setNotes(request.getNotes());
         reading.setPhotos(convertPhotosToString(request.getPhotos()));
         reading.setCreatedBy(userId);
-
-        // 保存记录（触发器会自动设置上次读数）
-        UtilityReading savedReading = utilityReadingRepository.save(reading);
-        log.info("水电表记录创建成功，ID: {}", savedReading.getId());
-
-        return convertToDto(savedReading);
+        return reading;
     }
 
     /**
@@ -137,6 +301,7 @@ public class UtilityReadingService {
     /**
      * 分页查询水电表记录
      */
+    @ReplicaRead
     public Page<UtilityReadingDto> getReadings(UtilityReadingQueryDto queryDto) {
         log.info("分页查询水电表记录，查询条件: {}", queryDto);
 
@@ -160,19 +325,107 @@ public class UtilityReadingService {
                 pageable
         );
 
-        return readings.map(this::convertToDto);
+        return new PageImpl<>(convertToDtoList(readings.getContent()), readings.getPageable(), readings.getTotalElements());
+    }
+
+    /**
+     * 按查询条件流式导出抄表记录CSV，逐行写出并从持久化上下文中移除，内存占用与行数无关
+     */
+    @ReplicaRead
+    public void exportReadingsCsv(UtilityReadingQueryDto queryDto, OutputStream outputStream) throws IOException {
+        log.info("导出水电表记录CSV，查询条件: {}", queryDto);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CsvUtils.UTF8_BOM);
+        CsvUtils.writeRow(writer, "记录ID", "楼宇", "房号", "抄表日期", "抄表时间",
+                "电表读数", "上次电表读数", "用电量", "水表读数", "上次水表读数", "用水量",
+                "热水表读数", "上次热水表读数", "热水用量", "抄表人", "抄表类型", "状态", "备注");
+
+        long count = 0;
+        try (Stream<Object[]> rows = utilityReadingRepository.streamForExport(
+                queryDto.getRoomId(), queryDto.getBuildingId(),
+                queryDto.getStartDate(), queryDto.getEndDate(),
+                queryDto.getMeterReader(), queryDto.getReadingType(), queryDto.getReadingStatus())) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                UtilityReading reading = (UtilityReading) row[0];
+                CsvUtils.writeRow(writer, reading.getId(), row[2], row[1],
+                        reading.getReadingDate(), reading.getReadingTime(),
+                        reading.getElectricityReading(), reading.getElectricityPreviousReading(), reading.getElectricityUsage(),
+                        reading.getWaterReading(), reading.getWaterPreviousReading(), reading.getWaterUsage(),
+                        reading.getHotWaterReading(), reading.getHotWaterPreviousReading(), reading.getHotWaterUsage(),
+                        reading.getMeterReader(), reading.getReadingType(), reading.getReadingStatus(), reading.getNotes());
+                entityManager.detach(reading);
+                count++;
+            }
+        }
+        writer.flush();
+        log.info("水电表记录CSV导出完成，共 {} 行", count);
+    }
+
+    /**
+     * 游标分页查询水电表记录（按抄表日期、抄表时间、ID倒序，不执行COUNT）
+     */
+    public CursorPage<UtilityReadingDto> scrollReadings(UtilityReadingQueryDto queryDto, String cursor,
+                                                        boolean includeTotal) {
+        log.info("游标分页查询水电表记录，查询条件: {}, 游标: {}", queryDto, cursor);
+
+        int size = queryDto.getSize();
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<UtilityReading> readings;
+        if (cursor == null || cursor.isBlank()) {
+            readings = utilityReadingRepository.scrollFirst(
+                    queryDto.getRoomId(), queryDto.getBuildingId(),
+                    queryDto.getStartDate(), queryDto.getEndDate(),
+                    queryDto.getMeterReader(), queryDto.getReadingType(), queryDto.getReadingStatus(),
+                    limit);
+        } else {
+            String[] keys = CursorCodec.decode(cursor, 3);
+            readings = utilityReadingRepository.scrollAfter(
+                    queryDto.getRoomId(), queryDto.getBuildingId(),
+                    queryDto.getStartDate(), queryDto.getEndDate(),
+                    queryDto.getMeterReader(), queryDto.getReadingType(), queryDto.getReadingStatus(),
+                    LocalDate.parse(keys[0]), LocalDateTime.parse(keys[1]), Long.valueOf(keys[2]),
+                    limit);
+        }
+
+        boolean hasMore = readings.size() > size;
+        if (hasMore) {
+            readings = readings.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            UtilityReading last = readings.get(readings.size() - 1);
+            nextCursor = CursorCodec.encode(last.getReadingDate(), last.getReadingTime(), last.getId());
+        }
+
+        CursorPage<UtilityReadingDto> result = new CursorPage<>(convertToDtoList(readings), size, hasMore, nextCursor);
+        if (includeTotal) {
+            result.setTotalElements(utilityReadingRepository.countByConditions(
+                    queryDto.getRoomId(), queryDto.getBuildingId(),
+                    queryDto.getStartDate(), queryDto.getEndDate(),
+                    queryDto.getMeterReader(), queryDto.getReadingType(), queryDto.getReadingStatus()));
+        }
+        return result;
     }
 
     /**
      * 更新水电表记录
      */
-    @CacheEvict(value = {"utilityReadings", "roomReadings"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "utilityReadings", key = "#id"),
+            @CacheEvict(value = "roomReadings", key = "#result.roomId")
+    })
     @Transactional
     public UtilityReadingDto updateReading(Long id, CreateUtilityReadingRequest request, Long userId) {
         log.info("更新水电表记录，ID: {}, 用户ID: {}", id, userId);
 
         UtilityReading reading = utilityReadingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("水电表记录不存在"));
+        LocalDate originalDate = reading.getReadingDate();
 
         // 更新字段
         if (request.getReadingDate() != null) {
@@ -209,7 +462,16 @@ public class UtilityReadingService {
         // 设置更新时间
         reading.setUpdatedAt(LocalDateTime.now());
 
+        // 重算本条及受影响的后续记录（改期时原日期之后的记录也需要重算）
+        List<Long> recalculatedIds = new ArrayList<>(readingUsageCalculator.applyPreviousReadings(List.of(reading)));
+        if (!originalDate.equals(reading.getReadingDate())) {
+            recalculatedIds.addAll(readingUsageCalculator.recalculateAfterRemoval(reading.getRoomId(), originalDate));
+        }
+
         UtilityReading savedReading = utilityReadingRepository.save(reading);
+        cacheHelper.evictAll("utilityReadings", recalculatedIds);
+        eventPublisher.publishEvent(new UtilityReadingChangedEvent(savedReading.getRoomId(),
+                new HashSet<>(List.of(originalDate, savedReading.getReadingDate()))));
         log.info("水电表记录更新成功，ID: {}", savedReading.getId());
 
         return convertToDto(savedReading);
@@ -218,7 +480,10 @@ public class UtilityReadingService {
     /**
      * 确认水电表记录
      */
-    @CacheEvict(value = {"utilityReadings", "roomReadings"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "utilityReadings", key = "#id"),
+            @CacheEvict(value = "roomReadings", key = "#result.roomId")
+    })
     @Transactional
     public UtilityReadingDto confirmReading(Long id, Long userId) {
         log.info("确认水电表记录，ID: {}", id);
@@ -228,6 +493,7 @@ public class UtilityReadingService {
 
         reading.setReadingStatus(UtilityReading.ReadingStatus.CONFIRMED);
         UtilityReading savedReading = utilityReadingRepository.save(reading);
+        eventPublisher.publishEvent(new UtilityReadingChangedEvent(savedReading.getRoomId(), List.of(savedReading.getReadingDate())));
 
         log.info("水电表记录确认成功，ID: {}", savedReading.getId());
         return convertToDto(savedReading);
@@ -236,33 +502,37 @@ public class UtilityReadingService {
     /**
      * 删除水电表记录
      */
-    @CacheEvict(value = {"utilityReadings", "roomReadings"}, allEntries = true)
+    @CacheEvict(value = "utilityReadings", key = "#id")
     @Transactional
     public void deleteReading(Long id) {
         log.info("删除水电表记录，ID: {}", id);
 
-        if (!utilityReadingRepository.existsById(id)) {
-            throw new RuntimeException("水电表记录不存在");
-        }
+        UtilityReading reading = utilityReadingRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("水电表记录不存在"));
 
-        utilityReadingRepository.deleteById(id);
+        utilityReadingRepository.delete(reading);
+        // 后一条记录的上次读数改为指向被删记录的前一条
+        cacheHelper.evictAll("utilityReadings",
+                readingUsageCalculator.recalculateAfterRemoval(reading.getRoomId(), reading.getReadingDate()));
+        cacheHelper.evict("roomReadings", reading.getRoomId());
+        eventPublisher.publishEvent(new UtilityReadingChangedEvent(reading.getRoomId(), List.of(reading.getReadingDate())));
         log.info("水电表记录删除成功，ID: {}", id);
     }
 
     /**
-     * 获取房间用量统计
+     * 获取房间用量统计（读取每日用量汇总）
      */
-    public Object[] getRoomUsageStatistics(Long roomId, LocalDate startDate, LocalDate endDate) {
+    public UsageStatisticsDto getRoomUsageStatistics(Long roomId, LocalDate startDate, LocalDate endDate) {
         log.info("获取房间用量统计，房间ID: {}, 日期范围: {} - {}", roomId, startDate, endDate);
-        return utilityReadingRepository.getUsageStatistics(roomId, startDate, endDate);
+        return usageAggregationService.getRoomUsageStatistics(roomId, startDate, endDate);
     }
 
     /**
-     * 获取楼宇用量统计
+     * 获取楼宇用量统计（读取每日用量汇总）
      */
-    public Object[] getBuildingUsageStatistics(Long buildingId, LocalDate startDate, LocalDate endDate) {
+    public UsageStatisticsDto getBuildingUsageStatistics(Long buildingId, LocalDate startDate, LocalDate endDate) {
         log.info("获取楼宇用量统计，楼宇ID: {}, 日期范围: {} - {}", buildingId, startDate, endDate);
-        return utilityReadingRepository.getBuildingUsageStatistics(buildingId, startDate, endDate);
+        return usageAggregationService.getBuildingUsageStatistics(buildingId, startDate, endDate);
     }
 
     /**
@@ -294,30 +564,7 @@ public class UtilityReadingService {
             return null;
         }
 
-        UtilityReadingDto dto = new UtilityReadingDto();
-        dto.setId(entity.getId());
-        dto.setRoomId(entity.getRoomId());
-        dto.setReadingDate(entity.getReadingDate());
-        dto.setReadingTime(entity.getReadingTime());
-        dto.setElectricityReading(entity.getElectricityReading());
-        dto.setElectricityPreviousReading(entity.getElectricityPreviousReading());
-        dto.setElectricityUsage(entity.getElectricityUsage());
-        dto.setWaterReading(entity.getWaterReading());
-        dto.setWaterPreviousReading(entity.getWaterPreviousReading());
-        dto.setWaterUsage(entity.getWaterUsage());
-        dto.setHotWaterReading(entity.getHotWaterReading());
-        dto.setHotWaterPreviousReading(entity.getHotWaterPreviousReading());
-        dto.setHotWaterUsage(entity.getHotWaterUsage());
-        dto.setMeterReader(entity.getMeterReader());
-        dto.setReadingType(entity.getReadingType());
-        dto.setReadingTypeDescription(entity.getReadingType() != null ? entity.getReadingType().getDescription() : null);
-        dto.setReadingStatus(entity.getReadingStatus());
-        dto.setReadingStatusDescription(entity.getReadingStatus() != null ? entity.getReadingStatus().getDescription() : null);
-        dto.setNotes(entity.getNotes());
-        dto.setPhotos(convertStringToPhotos(entity.getPhotos()));
-        dto.setCreatedBy(entity.getCreatedBy());
-        dto.setCreatedAt(entity.getCreatedAt());
-        dto.setUpdatedAt(entity.getUpdatedAt());
+        UtilityReadingDto dto = toBaseDto(entity);
 
         // 设置房间和楼宇信息
         if (entity.getRoomId() != null) {
@@ -341,15 +588,74 @@ public class UtilityReadingService {
 
     /**
      * 实体列表转DTO列表
+     * 整个结果集的房间和楼宇各用一次IN查询预取，避免逐条查询
      */
     private List<UtilityReadingDto> convertToDtoList(List<UtilityReading> entities) {
-        if (entities == null) {
+        if (entities == null || entities.isEmpty()) {
             return new ArrayList<>();
         }
 
-        return entities.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        // 预取房间
+        Set<Long> roomIds = entities.stream()
+                .map(UtilityReading::getRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+
+        // 预取楼宇名称
+        Set<Long> buildingIds = rooms.values().stream()
+                .map(Room::getBuildingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> buildingNames = buildingIds.isEmpty() ? Map.of() :
+                buildingRepository.findAllById(buildingIds).stream()
+                        .collect(Collectors.toMap(Building::getId, Building::getBuildingName));
+
+        List<UtilityReadingDto> result = new ArrayList<>(entities.size());
+        for (UtilityReading entity : entities) {
+            UtilityReadingDto dto = toBaseDto(entity);
+            Room room = entity.getRoomId() != null ? rooms.get(entity.getRoomId()) : null;
+            if (room != null) {
+                dto.setRoomNumber(room.getRoomNumber());
+                if (room.getBuildingId() != null) {
+                    dto.setBuildingName(buildingNames.get(room.getBuildingId()));
+                }
+            }
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * 复制记录自身字段到DTO（不含房间和楼宇信息）
+     */
+    private UtilityReadingDto toBaseDto(UtilityReading entity) {
+        UtilityReadingDto dto = new UtilityReadingDto();
+        dto.setId(entity.getId());
+        dto.setRoomId(entity.getRoomId());
+        dto.setReadingDate(entity.getReadingDate());
+        dto.setReadingTime(entity.getReadingTime());
+        dto.setElectricityReading(entity.getElectricityReading());
+        dto.setElectricityPreviousReading(entity.getElectricityPreviousReading());
+        dto.setElectricityUsage(entity.getElectricityUsage());
+        dto.setWaterReading(entity.getWaterReading());
+        dto.setWaterPreviousReading(entity.getWaterPreviousReading());
+        dto.setWaterUsage(entity.getWaterUsage());
+        dto.setHotWaterReading(entity.getHotWaterReading());
+        dto.setHotWaterPreviousReading(entity.getHotWaterPreviousReading());
+        dto.setHotWaterUsage(entity.getHotWaterUsage());
+        dto.setMeterReader(entity.getMeterReader());
+        dto.setReadingType(entity.getReadingType());
+        dto.setReadingTypeDescription(entity.getReadingType() != null ? entity.getReadingType().getDescription() : null);
+        dto.setReadingStatus(entity.getReadingStatus());
+        dto.setReadingStatusDescription(entity.getReadingStatus() != null ? entity.getReadingStatus().getDescription() : null);
+        dto.setNotes(entity.getNotes());
+        dto.setPhotos(convertStringToPhotos(entity.getPhotos()));
+        dto.setCreatedBy(entity.getCreatedBy());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setUpdatedAt(entity.getUpdatedAt());
+        return dto;
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.example.demo.util;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存操作工具类
+ * 用于注解无法表达的按键失效场景（如失效键需要先查询数据库才能确定）
+ */
+@Component
+public class CacheHelper {
+
+    private final CacheManager cacheManager;
+
+    public CacheHelper(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 失效指定缓存中的单个键
+     */
+    public void evict(String cacheName, Object key) {
+        if (key == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    /**
+     * 失效指定缓存中的多个键
+     */
+    public void evictAll(String cacheName, Iterable<?> keys) {
+        for (Object key : keys) {
+            evict(cacheName, key);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV写出工具
+ */
+public final class CsvUtils {
+
+    /**
+     * UTF-8 BOM，保证Excel直接打开时中文不乱码
+     */
+    public static final String UTF8_BOM = "\uFEFF";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private CsvUtils() {}
+
+    /**
+     * 写出一行，字段按RFC 4180规则转义
+     */
+    public static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * 转义单个字段：包含逗号、引号或换行时整体加引号，内部引号双写；
+     * 文本以公式起始字符开头时前置单引号，防止Excel将用户输入当作公式执行（数值不处理）
+     */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof LocalDateTime dateTime
+                ? DATE_TIME_FORMATTER.format(dateTime)
+                : value.toString();
+        if (value instanceof CharSequence && !text.isEmpty() && isFormulaStart(text.charAt(0))) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
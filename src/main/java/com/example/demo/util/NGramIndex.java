@@ -0,0 +1,257 @@
+package com.example.demo.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 内存 n-gram 倒排索引
+ *
+ * 每个文档（实体ID）包含固定的若干字段，字段值规范化（去首尾空白、转小写）后切分为长度为 n 的片段，
+ * 片段 -> 文档ID 建立倒排表。查询时取关键词各片段倒排表的交集作为候选，再逐个确认子串匹配并打分：
+ * 完全相等 > 前缀 > 包含，字段权重越高、关键词占字段比例越大得分越高。
+ * 关键词短于 n 时无法切分，直接遍历全部文档（仍只在内存中比较）。
+ */
+public class NGramIndex {
+
+    private static final Comparator<Hit> RANK_ORDER =
+            Comparator.<Hit>comparingDouble(hit -> hit.score).reversed().thenComparingLong(hit -> hit.id);
+
+    private final int gramSize;
+    private final double[] fieldWeights;
+
+    private Map<Long, String[]> documents = new HashMap<>();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param gramSize     片段长度
+     * @param fieldWeights 各字段权重，顺序与 put 时传入的字段值一致
+     */
+    public NGramIndex(int gramSize, double... fieldWeights) {
+        this.gramSize = gramSize;
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * 新增或替换文档
+     */
+    public void put(Long id, String... fieldValues) {
+        String[] fields = normalizeFields(fieldValues);
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.put(id, fields);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+            addPostings(postings, id, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除文档
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                removePostings(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 用给定的全部文档重建索引：先在锁外构建新索引，再整体替换
+     */
+    public void replaceAll(Map<Long, String[]> fieldValuesById) {
+        Map<Long, String[]> newDocuments = new HashMap<>(fieldValuesById.size() * 2);
+        Map<String, Set<Long>> newPostings = new HashMap<>();
+        fieldValuesById.forEach((id, values) -> {
+            String[] fields = normalizeFields(values);
+            newDocuments.put(id, fields);
+            addPostings(newPostings, id, fields);
+        });
+
+        lock.writeLock().lock();
+        try {
+            documents = newDocuments;
+            postings = newPostings;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 文档数量
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 倒排表中的片段数量
+     */
+    int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按相关度从高到低返回匹配的文档ID（得分相同按ID升序），最多 limit 个
+     */
+    public List<Long> search(String keyword, int limit) {
+        String query = normalize(keyword);
+        List<Hit> hits = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(query)) {
+                double score = score(documents.get(id), query);
+                if (score > 0) {
+                    hits.add(new Hit(id, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(RANK_ORDER);
+        List<Long> ids = new ArrayList<>(Math.min(hits.size(), limit));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            ids.add(hits.get(i).id);
+        }
+        return ids;
+    }
+
+    /**
+     * 候选文档：包含关键词全部片段的文档，需持有读锁调用
+     */
+    private Collection<Long> candidates(String query) {
+        if (query.length() < gramSize) {
+            return documents.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        // 从最短的倒排表开始求交集
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Long> result = new ArrayList<>();
+        for (Long id : lists.get(0)) {
+            boolean all = true;
+            for (int i = 1; i < lists.size() && all; i++) {
+                all = lists.get(i).contains(id);
+            }
+            if (all) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 文档得分：取各字段得分的最大值，没有字段包含关键词时为0
+     */
+    private double score(String[] fields, String query) {
+        double best = 0;
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i];
+            if (field == null) {
+                continue;
+            }
+            int index = field.indexOf(query);
+            if (index < 0) {
+                continue;
+            }
+            double match = field.length() == query.length() ? 4 : index == 0 ? 2 : 1;
+            double coverage = field.isEmpty() ? 1 : (double) query.length() / field.length();
+            best = Math.max(best, fieldWeights[i] * (match + coverage));
+        }
+        return best;
+    }
+
+    private void addPostings(Map<String, Set<Long>> target, Long id, String[] fields) {
+        for (String gram : documentGrams(fields)) {
+            target.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void removePostings(Long id, String[] fields) {
+        for (String gram : documentGrams(fields)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private Set<String> documentGrams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            if (field != null) {
+                grams.addAll(grams(field));
+            }
+        }
+        return grams;
+    }
+
+    private Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + gramSize <= value.length(); i++) {
+            grams.add(value.substring(i, i + gramSize));
+        }
+        return grams;
+    }
+
+    private String[] normalizeFields(String[] values) {
+        if (values.length != fieldWeights.length) {
+            throw new IllegalArgumentException("字段数量与权重数量不一致");
+        }
+        String[] fields = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            fields[i] = values[i] != null ? normalize(values[i]) : null;
+        }
+        return fields;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Hit {
+
+        final long id;
+        final double score;
+
+        Hit(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.demo.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按分区（楼宇）组织的前缀联想索引
+ *
+ * 每个分区保存按规范化文本排序的不可变数组，前缀查询在每个分区二分定位起点后多路归并，
+ * 只访问调用方有权限的分区。写入时复制所在分区的数组后整体替换（单个楼宇的条目很少），
+ * 读取无锁。
+ */
+public class PrefixSuggestIndex {
+
+    private static final Comparator<Match> MATCH_ORDER =
+            Comparator.<Match, String>comparing(match -> match.key).thenComparingLong(match -> match.id);
+
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * 条目ID -> 所在分区，条目改换分区时用于从原分区移除
+     */
+    private final Map<Long, Long> partitionById = new ConcurrentHashMap<>();
+
+    /**
+     * 新增或替换条目（文本为空时视为删除）
+     */
+    public synchronized void put(long partition, long id, String text) {
+        Long previous = partitionById.get(id);
+        if (previous != null && previous != partition) {
+            removeFromPartition(previous, id);
+        }
+        if (text == null || text.isBlank()) {
+            removeFromPartition(partition, id);
+            partitionById.remove(id);
+            return;
+        }
+        Partition current = partitions.getOrDefault(partition, Partition.EMPTY);
+        partitions.put(partition, current.with(new Match(partition, id, text)));
+        partitionById.put(id, partition);
+    }
+
+    /**
+     * 删除条目
+     */
+    public synchronized void remove(long id) {
+        Long partition = partitionById.remove(id);
+        if (partition != null) {
+            removeFromPartition(partition, id);
+        }
+    }
+
+    /**
+     * 删除整个分区
+     */
+    public synchronized void removePartition(long partition) {
+        Partition removed = partitions.remove(partition);
+        if (removed != null) {
+            for (Match match : removed.matches) {
+                partitionById.remove(match.id);
+            }
+        }
+    }
+
+    /**
+     * 用给定的全部条目重建索引
+     */
+    public synchronized void replaceAll(Collection<Match> entries) {
+        Map<Long, List<Match>> grouped = new HashMap<>();
+        for (Match entry : entries) {
+            if (entry.text != null && !entry.text.isBlank()) {
+                grouped.computeIfAbsent(entry.partition, p -> new ArrayList<>()).add(entry);
+            }
+        }
+        partitions.clear();
+        partitionById.clear();
+        grouped.forEach((partition, matches) -> {
+            Match[] sorted = matches.toArray(new Match[0]);
+            Arrays.sort(sorted, MATCH_ORDER);
+            partitions.put(partition, new Partition(sorted));
+            for (Match match : sorted) {
+                partitionById.put(match.id, partition);
+            }
+        });
+    }
+
+    /**
+     * 条目文本，不存在时返回 null
+     */
+    public String textOf(long id) {
+        Long partitionId = partitionById.get(id);
+        Partition partition = partitionId != null ? partitions.get(partitionId) : null;
+        if (partition != null) {
+            for (Match match : partition.matches) {
+                if (match.id == id) {
+                    return match.text;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 条目数量
+     */
+    public int size() {
+        return partitionById.size();
+    }
+
+    /**
+     * 在给定分区中查找以 prefix 开头的条目，按文本排序返回最多 limit 个
+     * 每个分区二分定位到前缀起点作为游标，再多路归并取前 limit 个，不需要对全部候选排序
+     */
+    public List<Match> suggest(String prefix, Collection<Long> partitionIds, int limit) {
+        String key = normalize(prefix);
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(partitionIds.size(), 1),
+                (a, b) -> MATCH_ORDER.compare(a.current(), b.current()));
+        for (Long partitionId : partitionIds) {
+            Partition partition = partitions.get(partitionId);
+            if (partition != null) {
+                int start = partition.lowerBound(key);
+                if (partition.matches(start, key)) {
+                    cursors.add(new Cursor(partition, start));
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(Math.min(limit, 16));
+        while (result.size() < limit && !cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            result.add(cursor.current());
+            cursor.index++;
+            if (cursor.partition.matches(cursor.index, key)) {
+                cursors.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private void removeFromPartition(long partition, long id) {
+        Partition current = partitions.get(partition);
+        if (current == null) {
+            return;
+        }
+        Partition updated = current.without(id);
+        if (updated.matches.length == 0) {
+            partitions.remove(partition);
+        } else {
+            partitions.put(partition, updated);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 联想条目
+     */
+    public static final class Match {
+
+        private final long partition;
+        private final long id;
+        private final String text;
+        private final String key;
+
+        public Match(long partition, long id, String text) {
+            this.partition = partition;
+            this.id = id;
+            this.text = text;
+            this.key = normalize(text);
+        }
+
+        public long getPartition() { return partition; }
+
+        public long getId() { return id; }
+
+        public String getText() { return text; }
+    }
+
+    /**
+     * 单个分区的不可变有序数组
+     */
+    private static final class Partition {
+
+        static final Partition EMPTY = new Partition(new Match[0]);
+
+        final Match[] matches;
+
+        Partition(Match[] matches) {
+            this.matches = matches;
+        }
+
+        Partition with(Match match) {
+            Match[] base = without(match.id).matches;
+            int index = Arrays.binarySearch(base, match, MATCH_ORDER);
+            int insertAt = index >= 0 ? index : -index - 1;
+            Match[] copy = new Match[base.length + 1];
+            System.arraycopy(base, 0, copy, 0, insertAt);
+            copy[insertAt] = match;
+            System.arraycopy(base, insertAt, copy, insertAt + 1, base.length - insertAt);
+            return new Partition(copy);
+        }
+
+        Partition without(long id) {
+            for (int i = 0; i < matches.length; i++) {
+                if (matches[i].id == id) {
+                    Match[] copy = new Match[matches.length - 1];
+                    System.arraycopy(matches, 0, copy, 0, i);
+                    System.arraycopy(matches, i + 1, copy, i, matches.length - i - 1);
+                    return new Partition(copy);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * 第一个文本不小于 prefix 的位置，以 prefix 开头的条目从这里开始连续排列
+         */
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = matches.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (matches[mid].key.compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        boolean matches(int index, String prefix) {
+            return index < matches.length && matches[index].key.startsWith(prefix);
+        }
+    }
+
+    /**
+     * 归并游标
+     */
+    private static final class Cursor {
+
+        final Partition partition;
+        int index;
+
+        Cursor(Partition partition, int index) {
+            this.partition = partition;
+            this.index = index;
+        }
+
+        Match current() {
+            return partition.matches[index];
+        }
+    }
+}
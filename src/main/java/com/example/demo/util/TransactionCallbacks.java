@@ -0,0 +1,30 @@
+package com.example.demo.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务回调工具类
+ * 用于维护内存索引和失效缓存：写入所在事务提交后再执行，避免回滚的写入被读到、
+ * 或提交前的读请求把旧数据重新写入缓存
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * 当前有事务时在提交后执行，否则立即执行
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
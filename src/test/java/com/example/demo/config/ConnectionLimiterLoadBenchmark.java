@@ -0,0 +1,117 @@
+package com.example.demo.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 请求线程模型压测对比：平台线程池（Tomcat threads.max=200）与虚拟线程，各自有无连接限流
+ *
+ * 固定数量的并发客户端循环发请求（收到响应后才发下一个），每个请求从 10 个连接的 Hikari 池
+ * 取连接、执行查询并持有 holdMs 毫秒模拟 SQL 耗时。统计吞吐量、P50/P99/最大延迟（从提交到完成）和失败数。
+ * 虚拟线程场景需要 Java 21 运行时，低版本自动跳过。
+ *
+ * 运行方式：
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.config.ConnectionLimiterLoadBenchmark [请求总数] [并发客户端数] [holdMs]
+ */
+public class ConnectionLimiterLoadBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final long CONNECTION_TIMEOUT_MS = 30000;
+
+    public static void main(String[] args) throws Exception {
+        int total = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long holdMs = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        System.out.printf("Java %s，请求 %d 个，并发客户端 %d，每次持有连接 %d ms，连接池 %d%n",
+                Runtime.version(), total, clients, holdMs, POOL_SIZE);
+
+        try (HikariDataSource hikari = createPool()) {
+            // 预热
+            run("warmup", Executors.newFixedThreadPool(200), hikari, total / 10, clients, holdMs);
+
+            run("platform-200", Executors.newFixedThreadPool(200), hikari, total, clients, holdMs);
+            run("platform-200 + limiter", Executors.newFixedThreadPool(200),
+                    new ConnectionLimitingDataSource(hikari, POOL_SIZE, CONNECTION_TIMEOUT_MS), total, clients, holdMs);
+
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual == null) {
+                System.out.println("当前JDK不支持虚拟线程，跳过 virtual 场景");
+                return;
+            }
+            run("virtual", virtual, hikari, total, clients, holdMs);
+            run("virtual + limiter", newVirtualThreadExecutor(),
+                    new ConnectionLimitingDataSource(hikari, POOL_SIZE, CONNECTION_TIMEOUT_MS), total, clients, holdMs);
+        }
+    }
+
+    private static void run(String name, ExecutorService executor, DataSource dataSource,
+                            int total, int clients, long holdMs) throws InterruptedException {
+        long[] latencies = new long[total];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore clientSlots = new Semaphore(clients);
+        CountDownLatch done = new CountDownLatch(total);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            clientSlots.acquire();
+            int index = i;
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try (Connection connection = dataSource.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                    Thread.sleep(holdMs);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    latencies[index] = System.nanoTime() - submittedAt;
+                    clientSlots.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-24s 吞吐 %8.1f req/s  P50 %7.1f ms  P99 %7.1f ms  最大 %7.1f ms  失败 %d%n",
+                name, total / (elapsed / 1e9),
+                latencies[total / 2] / 1e6, latencies[(int) (total * 0.99)] / 1e6, latencies[total - 1] / 1e6,
+                failures.get());
+    }
+
+    private static HikariDataSource createPool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor()（Java 21），项目按 Java 17 编译，通过反射调用
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 读写分离路由测试：主库、从库是两个独立的 H2 内存库，各有一张表记录自己的名称，
+ * 通过查询结果判断连接来自哪个库
+ */
+@SpringJUnitConfig(ReadWriteRoutingDataSourceTest.TestConfig.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private Queries queries;
+
+    @Autowired
+    private Callers callers;
+
+    @Test
+    void replicaReadGoesToReplica() {
+        assertThat(queries.replicaRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void plainReadOnlyTransactionStaysOnPrimary() {
+        assertThat(queries.readOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void writeTransactionAndNoTransactionUsePrimary() {
+        assertThat(queries.write()).isEqualTo("primary");
+        assertThat(queries.noTransaction()).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaReadInsideWriteTransactionJoinsPrimary() {
+        assertThat(callers.replicaReadInsideWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaReadInsidePlainReadOnlyTransactionJoinsPrimary() {
+        assertThat(callers.replicaReadInsideReadOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void newWriteTransactionInsideReplicaReadUsesPrimary() {
+        assertThat(callers.writeInsideReplicaRead()).containsExactly("replica", "primary");
+    }
+
+    @Test
+    void markerIsClearedAfterReturnAndAfterException() {
+        queries.replicaRead();
+        assertThat(ReadWriteRoutingDataSource.isReplicaRead()).isFalse();
+        assertThat(queries.readOnly()).isEqualTo("primary");
+
+        assertThatThrownBy(() -> queries.replicaReadFailing()).isInstanceOf(IllegalStateException.class);
+        assertThat(ReadWriteRoutingDataSource.isReplicaRead()).isFalse();
+        assertThat(queries.readOnly()).isEqualTo("primary");
+    }
+
+    static class Queries {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        Queries(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @ReplicaRead
+        public String replicaRead() {
+            return database();
+        }
+
+        @ReplicaRead
+        public String replicaReadFailing() {
+            database();
+            throw new IllegalStateException("查询失败");
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return database();
+        }
+
+        @Transactional
+        public String write() {
+            return database();
+        }
+
+        @Transactional(propagation = Propagation.REQUIRES_NEW)
+        public String writeInNewTransaction() {
+            return database();
+        }
+
+        public String noTransaction() {
+            return database();
+        }
+
+        private String database() {
+            return jdbcTemplate.queryForObject("SELECT name FROM database_name", String.class);
+        }
+    }
+
+    static class Callers {
+
+        private final Queries queries;
+
+        Callers(Queries queries) {
+            this.queries = queries;
+        }
+
+        @Transactional
+        public String replicaReadInsideWrite() {
+            return queries.replicaRead();
+        }
+
+        @Transactional(readOnly = true)
+        public String replicaReadInsideReadOnly() {
+            return queries.replicaRead();
+        }
+
+        @ReplicaRead
+        public String[] writeInsideReplicaRead() {
+            String outer = queries.noTransaction();
+            return new String[]{outer, queries.writeInNewTransaction()};
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableAspectJAutoProxy
+    static class TestConfig {
+
+        private final DataSourceConfig.ReadWriteSplittingConfig splittingConfig = new DataSourceConfig.ReadWriteSplittingConfig();
+
+        @Bean
+        public DataSource primaryDataSource() {
+            return database("primary");
+        }
+
+        @Bean
+        public DataSource replicaDataSource() {
+            return database("replica");
+        }
+
+        @Bean
+        public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            return splittingConfig.dataSource(primaryDataSource, replicaDataSource);
+        }
+
+        @Bean
+        public ReplicaReadAspect replicaReadAspect() {
+            return splittingConfig.replicaReadAspect();
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(@Qualifier("dataSource") DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        public Queries queries(@Qualifier("dataSource") DataSource dataSource) {
+            return new Queries(new JdbcTemplate(dataSource));
+        }
+
+        @Bean
+        public Callers callers(Queries queries) {
+            return new Callers(queries);
+        }
+
+        private static DataSource database(String name) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_name (name VARCHAR(20))");
+            jdbcTemplate.update("DELETE FROM database_name");
+            jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+            return dataSource;
+        }
+    }
+}
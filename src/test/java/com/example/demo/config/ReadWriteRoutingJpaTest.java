@@ -0,0 +1,241 @@
+package com.example.demo.config;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离路由测试（JPA）：与生产一致使用 JpaTransactionManager 和共享 EntityManager，
+ * 主库、从库是两个独立的 H2 内存库，通过查询结果和写入落在哪个库判断路由
+ */
+@SpringJUnitConfig(ReadWriteRoutingJpaTest.TestConfig.class)
+class ReadWriteRoutingJpaTest {
+
+    private static final AtomicLong IDS = new AtomicLong(100);
+
+    @Autowired
+    private Queries queries;
+
+    @Autowired
+    private Callers callers;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(primaryDataSource).update("DELETE FROM database_name WHERE id <> 1");
+        new JdbcTemplate(replicaDataSource).update("DELETE FROM database_name WHERE id <> 1");
+    }
+
+    @Test
+    void replicaReadGoesToReplica() {
+        assertThat(queries.replicaRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void plainReadOnlyTransactionStaysOnPrimary() {
+        assertThat(queries.readOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void writeAfterReplicaReadInSameCallerGoesToPrimary() {
+        assertThat(callers.replicaReadThenWrite()).isEqualTo("replica");
+
+        assertThat(rowCount(primaryDataSource)).isEqualTo(2);
+        assertThat(rowCount(replicaDataSource)).isEqualTo(1);
+    }
+
+    @Test
+    void replicaReadAfterPrimaryQueryInSameCallerGoesToReplica() {
+        assertThat(callers.readOnlyThenReplicaRead()).containsExactly("primary", "replica");
+    }
+
+    @Test
+    void replicaReadInsideWriteTransactionJoinsPrimary() {
+        assertThat(callers.writeThenReplicaRead()).isEqualTo("primary");
+
+        assertThat(rowCount(primaryDataSource)).isEqualTo(2);
+        assertThat(rowCount(replicaDataSource)).isEqualTo(1);
+    }
+
+    @Test
+    void openInViewIsDisabled() {
+        // 开启时整个请求共用一个 EntityManager 和它取到的第一个连接，路由失效
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        assertThat(yaml.getObject().getProperty("spring.jpa.open-in-view")).isEqualTo("false");
+    }
+
+    private static int rowCount(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM database_name", Integer.class);
+    }
+
+    @Entity(name = "DatabaseName")
+    @Table(name = "database_name")
+    public static class DatabaseName {
+
+        @Id
+        private Long id;
+
+        private String name;
+
+        protected DatabaseName() {
+        }
+
+        DatabaseName(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    static class Queries {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @ReplicaRead
+        public String replicaRead() {
+            return database();
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return database();
+        }
+
+        @Transactional
+        public void write() {
+            entityManager.persist(new DatabaseName(IDS.incrementAndGet(), "written"));
+            entityManager.flush();
+        }
+
+        private String database() {
+            return entityManager.createQuery("SELECT d.name FROM DatabaseName d WHERE d.id = 1", String.class)
+                    .getSingleResult();
+        }
+    }
+
+    /**
+     * 模拟控制器：不开事务，依次调用多个事务方法
+     */
+    static class Callers {
+
+        private final Queries queries;
+
+        Callers(Queries queries) {
+            this.queries = queries;
+        }
+
+        public String replicaReadThenWrite() {
+            String database = queries.replicaRead();
+            queries.write();
+            return database;
+        }
+
+        public String[] readOnlyThenReplicaRead() {
+            return new String[]{queries.readOnly(), queries.replicaRead()};
+        }
+
+        @Transactional
+        public String writeThenReplicaRead() {
+            queries.write();
+            return queries.replicaRead();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableAspectJAutoProxy
+    static class TestConfig {
+
+        private final DataSourceConfig.ReadWriteSplittingConfig splittingConfig = new DataSourceConfig.ReadWriteSplittingConfig();
+
+        @Bean
+        public DataSource primaryDataSource() {
+            return database("primary");
+        }
+
+        @Bean
+        public DataSource replicaDataSource() {
+            return database("replica");
+        }
+
+        @Bean
+        public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            return splittingConfig.dataSource(primaryDataSource, replicaDataSource);
+        }
+
+        @Bean
+        public ReplicaReadAspect replicaReadAspect() {
+            return splittingConfig.replicaReadAspect();
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(@Qualifier("dataSource") DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setManagedTypes(PersistenceManagedTypes.of(DatabaseName.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public Queries queries() {
+            return new Queries();
+        }
+
+        @Bean
+        public Callers callers(Queries queries) {
+            return new Callers(queries);
+        }
+
+        private static DataSource database(String name) {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:jpa_routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_name (id BIGINT PRIMARY KEY, name VARCHAR(20))");
+            jdbcTemplate.update("DELETE FROM database_name");
+            jdbcTemplate.update("INSERT INTO database_name VALUES (1, ?)", name);
+            return dataSource;
+        }
+    }
+}
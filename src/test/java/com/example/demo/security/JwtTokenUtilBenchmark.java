@@ -0,0 +1,86 @@
+package com.example.demo.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT单次请求鉴权开销基准测试
+ *
+ * legacyPerRequest 复现优化前过滤器的行为：extractUsername + validateToken(token, userDetails)
+ * 共解析三次token，每次都重新构建HMAC密钥和解析器；
+ * currentPerRequest 为当前行为：复用密钥和解析器，每个请求只解析一次。
+ *
+ * 运行方式：
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.security.JwtTokenUtilBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 86400000L);
+        jwtTokenUtil.init();
+
+        token = jwtTokenUtil.generateToken("alice");
+        userDetails = User.withUsername("alice").password("").authorities(List.of()).build();
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyParse().getSubject();
+        if (username == null) {
+            return false;
+        }
+        String validatedUsername = legacyParse().getSubject();
+        Date expiration = legacyParse().getExpiration();
+        return validatedUsername.equals(userDetails.getUsername()) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean currentPerRequest() {
+        Claims claims = jwtTokenUtil.parseClaims(token);
+        return jwtTokenUtil.validateToken(claims, userDetails);
+    }
+
+    private Claims legacyParse() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtTokenUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.UserBuildingRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * BuildingOwnershipIndex 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class BuildingOwnershipIndexTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+
+    @Mock
+    private UserBuildingRepository userBuildingRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private BuildingOwnershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BuildingOwnershipIndex(userBuildingRepository, Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .executor(Runnable::run)
+                .ticker(nanos::get));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOnceAndAnswersFromMemory() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID)).thenReturn(List.of(30L, 10L, 20L));
+
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+        assertThat(index.owns(USER_ID, 40L)).isFalse();
+        assertThat(index.getBuildingIds(USER_ID)).containsExactly(10L, 20L, 30L);
+
+        verify(userBuildingRepository, times(1)).findBuildingIdsByUserId(USER_ID);
+    }
+
+    @Test
+    void nullArgumentsOwnNothing() {
+        assertThat(index.owns(null, 1L)).isFalse();
+        assertThat(index.owns(USER_ID, null)).isFalse();
+    }
+
+    @Test
+    void grantIsVisibleAfterCommit() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of(10L, 20L));
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> index.invalidateUser(USER_ID));
+        // 提交前仍是旧数据
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+
+        commit(synchronizations);
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+        assertThat(index.getBuildingIds(USER_ID)).containsExactly(10L, 20L);
+    }
+
+    @Test
+    void revokeIsVisibleAfterCommit() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenReturn(List.of(10L, 20L))
+                .thenReturn(List.of(10L));
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+
+        commit(inTransaction(() -> index.invalidateUser(USER_ID)));
+
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+        assertThat(index.owns(USER_ID, 10L)).isTrue();
+    }
+
+    @Test
+    void rolledBackRevokeKeepsEntry() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID)).thenReturn(List.of(10L, 20L));
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+
+        inTransaction(() -> index.invalidateUser(USER_ID));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+        verify(userBuildingRepository, times(1)).findBuildingIdsByUserId(USER_ID);
+    }
+
+    @Test
+    void removeBuildingInvalidatesOnlyItsOwners() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenReturn(List.of(10L, 20L))
+                .thenReturn(List.of(10L));
+        when(userBuildingRepository.findBuildingIdsByUserId(OTHER_USER_ID)).thenReturn(List.of(30L));
+        index.owns(USER_ID, 10L);
+        index.owns(OTHER_USER_ID, 30L);
+
+        index.removeBuilding(20L);
+
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+        assertThat(index.owns(OTHER_USER_ID, 30L)).isTrue();
+        verify(userBuildingRepository, times(2)).findBuildingIdsByUserId(USER_ID);
+        verify(userBuildingRepository, times(1)).findBuildingIdsByUserId(OTHER_USER_ID);
+    }
+
+    @Test
+    void deletedUserIsReloaded() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of());
+        assertThat(index.owns(USER_ID, 10L)).isTrue();
+
+        index.invalidateUser(USER_ID);
+
+        assertThat(index.owns(USER_ID, 10L)).isFalse();
+    }
+
+    @Test
+    void loadRacingWithRevokeIsNotCached() {
+        // 加载查询已读到旧数据，返回前另一个事务提交了移除
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenAnswer(invocation -> {
+                    index.invalidateUser(USER_ID);
+                    return List.of(10L, 20L);
+                })
+                .thenReturn(List.of(10L));
+
+        // 本次调用只能返回自己读到的结果
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+
+        // 结果没有被缓存，下次访问重新加载到移除后的数据
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+        assertThat(index.owns(USER_ID, 10L)).isTrue();
+        verify(userBuildingRepository, times(2)).findBuildingIdsByUserId(USER_ID);
+    }
+
+    @Test
+    void changesFromOtherInstancesAreSeenAfterExpiry() {
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of(10L, 20L));
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+
+        // 其他实例分配了楼宇，本实例没有收到提交回调
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        assertThat(index.owns(USER_ID, 20L)).isFalse();
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertThat(index.owns(USER_ID, 20L)).isTrue();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        index = new BuildingOwnershipIndex(userBuildingRepository, Caffeine.newBuilder()
+                .maximumSize(1)
+                .executor(Runnable::run));
+        when(userBuildingRepository.findBuildingIdsByUserId(USER_ID)).thenReturn(List.of(10L));
+        when(userBuildingRepository.findBuildingIdsByUserId(OTHER_USER_ID)).thenReturn(List.of(30L));
+
+        for (int i = 0; i < 3; i++) {
+            index.owns(USER_ID, 10L);
+            index.owns(OTHER_USER_ID, 30L);
+        }
+
+        // 只能缓存一个用户，首轮之后每轮至少有一次重新加载
+        assertThat(mockingDetails(userBuildingRepository).getInvocations()).hasSizeGreaterThanOrEqualTo(4);
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        action.run();
+        return TransactionSynchronizationManager.getSynchronizations();
+    }
+
+    private static void commit(List<TransactionSynchronization> synchronizations) {
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.MeterIngestionStats;
+import com.example.demo.dto.MeterReadingPush;
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.repository.RoomRepository;
+import com.example.demo.repository.UtilityReadingRepository;
+import com.example.demo.util.CacheHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * MeterIngestionService 采集计数单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class MeterIngestionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+    private static final Set<Long> EXISTING_ROOMS = Set.of(1L, 2L, 3L, 4L);
+
+    @Mock
+    private UtilityReadingRepository utilityReadingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private CacheHelper cacheHelper;
+
+    @Mock
+    private ReadingUsageCalculator readingUsageCalculator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MeterIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new MeterIngestionService(utilityReadingRepository, roomRepository, cacheHelper,
+                readingUsageCalculator, eventPublisher, transactionTemplate, meterRegistry, 100, 100, 1L);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(roomRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().filter(EXISTING_ROOMS::contains).toList());
+        when(readingUsageCalculator.applyPreviousReadings(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void everyAcceptedPushIsWrittenOrDroppedWithReason() {
+        when(utilityReadingRepository.findByRoomIdInAndReadingDateBetween(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        existing(1L, UtilityReading.ReadingType.MANUAL, 10),
+                        existing(2L, UtilityReading.ReadingType.AUTO, 10)));
+
+        service.submit(Arrays.asList(
+                push(1L, 12),   // 当天已有人工抄表
+                push(2L, 9),    // 比已有自动抄表旧
+                push(3L, 8),    // 被同批次 9 点的推送合并
+                push(3L, 9),
+                push(99L, 9),   // 房间不存在
+                push(null, 9))); // 数据不完整，不入队
+        service.flush();
+
+        MeterIngestionStats stats = service.getStats();
+        assertThat(stats.getAcceptedCount()).isEqualTo(5);
+        assertThat(stats.getInvalidCount()).isEqualTo(1);
+        assertThat(stats.getWrittenCount()).isEqualTo(1);
+        assertThat(stats.getDroppedCount()).isEqualTo(4);
+        assertThat(stats.getDroppedByReason()).containsEntry("manual_wins", 1L)
+                .containsEntry("stale", 1L)
+                .containsEntry("superseded", 1L)
+                .containsEntry("unknown_room", 1L)
+                .containsEntry("error", 0L);
+        assertThat(stats.getAcceptedCount()).isEqualTo(stats.getWrittenCount() + stats.getDroppedCount());
+        assertThat(meterRegistry.get("meter.ingest.pushes.dropped").tag("reason", "superseded").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void newerAutoPushUpdatesExistingReading() {
+        UtilityReading auto = existing(2L, UtilityReading.ReadingType.AUTO, 10);
+        when(utilityReadingRepository.findByRoomIdInAndReadingDateBetween(anyCollection(), any(), any()))
+                .thenReturn(List.of(auto));
+
+        service.submit(List.of(push(2L, 11)));
+        service.flush();
+
+        assertThat(auto.getReadingTime()).isEqualTo(DAY.atTime(11, 0));
+        assertThat(service.getStats().getWrittenCount()).isEqualTo(1);
+        assertThat(service.getStats().getDroppedCount()).isZero();
+    }
+
+    @Test
+    void failingRowIsCountedAsErrorAfterSplitRetry() {
+        when(utilityReadingRepository.findByRoomIdInAndReadingDateBetween(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        List<Long> savedRooms = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<UtilityReading> readings = invocation.getArgument(0);
+            if (readings.stream().anyMatch(reading -> reading.getRoomId() == 4L)) {
+                throw new IllegalStateException("uk_room_date");
+            }
+            readings.forEach(reading -> savedRooms.add(reading.getRoomId()));
+            return readings;
+        }).when(utilityReadingRepository).saveAll(anyCollection());
+
+        service.submit(List.of(push(3L, 9), push(4L, 9)));
+        service.flush();
+
+        MeterIngestionStats stats = service.getStats();
+        assertThat(savedRooms).containsExactly(3L);
+        assertThat(stats.getWrittenCount()).isEqualTo(1);
+        assertThat(stats.getDroppedByReason()).containsEntry("error", 1L);
+        assertThat(stats.getDroppedCount()).isEqualTo(1);
+        assertThat(stats.getAcceptedCount()).isEqualTo(stats.getWrittenCount() + stats.getDroppedCount());
+    }
+
+    private static MeterReadingPush push(Long roomId, int hour) {
+        MeterReadingPush push = new MeterReadingPush();
+        push.setRoomId(roomId);
+        push.setReadingTime(DAY.atTime(hour, 0));
+        push.setElectricityReading(BigDecimal.valueOf(100 + hour));
+        push.setWaterReading(BigDecimal.valueOf(10 + hour));
+        return push;
+    }
+
+    private static UtilityReading existing(Long roomId, UtilityReading.ReadingType type, int hour) {
+        UtilityReading reading = new UtilityReading();
+        reading.setId(roomId * 10);
+        reading.setRoomId(roomId);
+        reading.setReadingType(type);
+        reading.setReadingDate(DAY);
+        reading.setReadingTime(DAY.atTime(hour, 0));
+        return reading;
+    }
+}
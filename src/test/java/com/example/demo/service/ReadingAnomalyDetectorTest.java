@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Room;
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.repository.UtilityReadingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReadingAnomalyDetector 单元测试
+ */
+class ReadingAnomalyDetectorTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final LocalDate DAY_0 = LocalDate.of(2024, 1, 1);
+
+    private UtilityReadingRepository utilityReadingRepository;
+    private ReadingAnomalyDetector detector;
+    private Room rentedRoom;
+
+    @BeforeEach
+    void setUp() {
+        utilityReadingRepository = mock(UtilityReadingRepository.class);
+        detector = new ReadingAnomalyDetector(utilityReadingRepository, new SimpleMeterRegistry(), true, 3.0, 5, 30);
+        rentedRoom = room(Room.RentalStatus.RENTED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flagsMeterRollback() {
+        UtilityReading reading = reading(DAY_0.plusDays(10), DAY_0, "-5", "-1");
+
+        assertThat(detector.inspect(reading, rentedRoom)).containsExactly("电表读数回退", "水表读数回退");
+    }
+
+    @Test
+    void flagsZeroUsageOnlyForRentedRoomWithPreviousReading() {
+        assertThat(detector.inspect(reading(DAY_0.plusDays(10), DAY_0, "0", "0"), rentedRoom))
+                .containsExactly("已出租房间水电用量均为0");
+        assertThat(detector.inspect(reading(DAY_0.plusDays(20), DAY_0.plusDays(10), "0", "0"),
+                room(Room.RentalStatus.VACANT))).isEmpty();
+        // 房间第一条记录没有上次读数，用量等于读数本身，不做零用量判断
+        assertThat(detector.inspect(reading(DAY_0, null, "0", "0"), rentedRoom)).isEmpty();
+    }
+
+    @Test
+    void flagsDailyUsageFarFromHistory() {
+        givenSteadyHistoryUntil(DAY_0.plusDays(70));
+
+        assertThat(detector.inspect(reading(DAY_0.plusDays(80), DAY_0.plusDays(70), "105", "10"), rentedRoom))
+                .isEmpty();
+        assertThat(detector.inspect(reading(DAY_0.plusDays(90), DAY_0.plusDays(80), "400", "10"), rentedRoom))
+                .singleElement().asString().startsWith("日均用电量偏离历史");
+    }
+
+    @Test
+    void dailyRateUsesGapToPreviousStoredReading() {
+        givenSteadyHistoryUntil(DAY_0.plusDays(70));
+
+        // 第75天有一条检测器未见过的记录（如自动抄表），本期用量只覆盖5天，日均用量正常
+        UtilityReading reading = reading(DAY_0.plusDays(80), DAY_0.plusDays(75), "50", "5");
+
+        assertThat(detector.inspect(reading, rentedRoom)).isEmpty();
+    }
+
+    @Test
+    void warmUpKeepsDisputedReadingAsGapBaseButNotAsSample() {
+        // 每5天一条记录，其中隔一条有争议；每条用量都相对前一条（含有争议的）计算，日均用电10度
+        List<Object[]> history = new ArrayList<>();
+        for (int i = 14; i >= 0; i--) {
+            history.add(new Object[]{DAY_0.plusDays(i * 5L), new BigDecimal("50"), new BigDecimal("5"),
+                    i % 2 == 1 ? "DISPUTED" : "CONFIRMED"});
+        }
+        when(utilityReadingRepository.findRecentUsage(eq(ROOM_ID), any(), any())).thenReturn(history);
+
+        assertThat(detector.inspect(reading(DAY_0.plusDays(75), DAY_0.plusDays(70), "50", "5"), rentedRoom))
+                .isEmpty();
+        assertThat(detector.inspect(reading(DAY_0.plusDays(80), DAY_0.plusDays(75), "25", "5"), rentedRoom))
+                .singleElement().asString().startsWith("日均用电量偏离历史");
+    }
+
+    @Test
+    void rolledBackReadingDoesNotChangeStatistics() {
+        givenSteadyHistoryUntil(DAY_0.plusDays(70));
+
+        TransactionSynchronizationManager.initSynchronization();
+        detector.inspect(reading(DAY_0.plusDays(90), DAY_0.plusDays(70), "200", "20"), rentedRoom);
+        // 事务回滚：不执行提交回调
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 第80天仍是最新记录，参与 z 分数检查
+        assertThat(detector.inspect(reading(DAY_0.plusDays(80), DAY_0.plusDays(70), "400", "10"), rentedRoom))
+                .singleElement().asString().startsWith("日均用电量偏离历史");
+    }
+
+    @Test
+    void committedReadingUpdatesStatistics() {
+        givenSteadyHistoryUntil(DAY_0.plusDays(70));
+
+        TransactionSynchronizationManager.initSynchronization();
+        detector.inspect(reading(DAY_0.plusDays(90), DAY_0.plusDays(70), "200", "20"), rentedRoom);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        // 第90天已提交，第80天的记录视为补录，只做规则检查
+        assertThat(detector.inspect(reading(DAY_0.plusDays(80), DAY_0.plusDays(70), "400", "10"), rentedRoom))
+                .isEmpty();
+    }
+
+    @Test
+    void disabledDetectorReportsNothing() {
+        ReadingAnomalyDetector disabled = new ReadingAnomalyDetector(utilityReadingRepository,
+                new SimpleMeterRegistry(), false, 3.0, 5, 30);
+
+        assertThat(disabled.inspect(reading(DAY_0.plusDays(10), DAY_0, "-5", "0"), rentedRoom)).isEmpty();
+    }
+
+    /**
+     * 第0天起每10天一条记录，日均用电10度、用水1吨
+     */
+    private void givenSteadyHistoryUntil(LocalDate lastDate) {
+        List<Object[]> history = new ArrayList<>();
+        for (LocalDate date = lastDate; !date.isBefore(DAY_0); date = date.minusDays(10)) {
+            history.add(new Object[]{date, new BigDecimal("100"), new BigDecimal("10"), "CONFIRMED"});
+        }
+        when(utilityReadingRepository.findRecentUsage(eq(ROOM_ID), any(), any())).thenReturn(history);
+    }
+
+    private static UtilityReading reading(LocalDate date, LocalDate previousDate, String electricityUsage,
+                                          String waterUsage) {
+        UtilityReading reading = new UtilityReading();
+        reading.setRoomId(ROOM_ID);
+        reading.setReadingDate(date);
+        reading.setPreviousReadingDate(previousDate);
+        reading.setElectricityUsage(new BigDecimal(electricityUsage));
+        reading.setWaterUsage(new BigDecimal(waterUsage));
+        return reading;
+    }
+
+    private static Room room(Room.RentalStatus rentalStatus) {
+        Room room = new Room();
+        room.setId(ROOM_ID);
+        room.setRentalStatus(rentalStatus);
+        return room;
+    }
+}
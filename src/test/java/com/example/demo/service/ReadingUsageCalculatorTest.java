@@ -0,0 +1,199 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UtilityReading;
+import com.example.demo.repository.UtilityReadingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * ReadingUsageCalculator 单元测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ReadingUsageCalculatorTest {
+
+    private static final Long ROOM_ID = 1L;
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FEB_1 = LocalDate.of(2024, 2, 1);
+    private static final LocalDate MAR_1 = LocalDate.of(2024, 3, 1);
+
+    @Mock
+    private UtilityReadingRepository utilityReadingRepository;
+
+    @InjectMocks
+    private ReadingUsageCalculator calculator;
+
+    @Test
+    void emptyBatchDoesNotQuery() {
+        assertThat(calculator.applyPreviousReadings(List.of())).isEmpty();
+        verifyNoInteractions(utilityReadingRepository);
+    }
+
+    @Test
+    void firstReadingOfRoomUsesZeroAsPrevious() {
+        UtilityReading reading = reading(null, ROOM_ID, JAN_1, "120", "30", null);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), JAN_1, JAN_1)).thenReturn(List.of());
+
+        assertThat(calculator.applyPreviousReadings(List.of(reading))).isEmpty();
+
+        assertUsage(reading, "0", "120", "0", "30");
+        assertThat(reading.getHotWaterPreviousReading()).isEqualByComparingTo("0");
+        assertThat(reading.getHotWaterUsage()).isNull();
+    }
+
+    @Test
+    void newReadingTakesPreviousFromEarlierStoredReading() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", "5"), null);
+        UtilityReading february = reading(null, ROOM_ID, FEB_1, "150", "26", "7.5");
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), FEB_1, FEB_1)).thenReturn(List.of(january));
+
+        assertThat(calculator.applyPreviousReadings(List.of(february))).isEmpty();
+
+        assertUsage(february, "100", "50", "20", "6");
+        assertThat(february.getHotWaterPreviousReading()).isEqualByComparingTo("5");
+        assertThat(february.getHotWaterUsage()).isEqualByComparingTo("2.5");
+    }
+
+    @Test
+    void backfilledReadingRecalculatesTheFollowingStoredReading() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", null), null);
+        UtilityReading march = withUsage(reading(30L, ROOM_ID, MAR_1, "200", "40", null), january);
+        UtilityReading february = reading(null, ROOM_ID, FEB_1, "150", "30", null);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), FEB_1, FEB_1))
+                .thenReturn(List.of(january, march));
+
+        List<Long> changed = calculator.applyPreviousReadings(List.of(february));
+
+        assertThat(changed).containsExactly(30L);
+        assertUsage(february, "100", "50", "20", "10");
+        assertUsage(march, "150", "50", "30", "10");
+    }
+
+    @Test
+    void followingReadingThatDoesNotChangeIsNotReported() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", null), null);
+        UtilityReading february = withUsage(reading(20L, ROOM_ID, FEB_1, "150", "30", null), january);
+        UtilityReading march = withUsage(reading(30L, ROOM_ID, MAR_1, "200", "40", null), february);
+        // 二月记录重新保存但读数不变
+        UtilityReading editedFebruary = reading(20L, ROOM_ID, FEB_1, "150", "30", null);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), FEB_1, FEB_1))
+                .thenReturn(List.of(january, february, march));
+
+        assertThat(calculator.applyPreviousReadings(List.of(editedFebruary))).isEmpty();
+        assertUsage(march, "150", "50", "30", "10");
+    }
+
+    @Test
+    void editedReadingInBatchReplacesStoredVersionOfSameDay() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", null), null);
+        UtilityReading storedFebruary = withUsage(reading(20L, ROOM_ID, FEB_1, "150", "30", null), january);
+        UtilityReading march = withUsage(reading(30L, ROOM_ID, MAR_1, "200", "40", null), storedFebruary);
+        UtilityReading editedFebruary = reading(20L, ROOM_ID, FEB_1, "180", "35", null);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), FEB_1, FEB_1))
+                .thenReturn(List.of(january, storedFebruary, march));
+
+        List<Long> changed = calculator.applyPreviousReadings(List.of(editedFebruary));
+
+        // 批内记录本身不计入返回值，只返回被连带重算的记录
+        assertThat(changed).containsExactly(30L);
+        assertUsage(editedFebruary, "100", "80", "20", "15");
+        assertUsage(march, "180", "20", "35", "5");
+    }
+
+    @Test
+    void batchSpanningRoomsKeepsTimelinesSeparate() {
+        UtilityReading roomOneJanuary = withUsage(reading(10L, 1L, JAN_1, "100", "20", null), null);
+        UtilityReading roomTwoJanuary = withUsage(reading(11L, 2L, JAN_1, "500", "80", null), null);
+        UtilityReading roomOneFebruary = reading(null, 1L, FEB_1, "130", "25", null);
+        UtilityReading roomTwoMarch = reading(null, 2L, MAR_1, "560", "90", null);
+        when(utilityReadingRepository.findUsageHistory(any(), any(), any()))
+                .thenReturn(List.of(roomOneJanuary, roomTwoJanuary));
+
+        calculator.applyPreviousReadings(List.of(roomOneFebruary, roomTwoMarch));
+
+        assertUsage(roomOneFebruary, "100", "30", "20", "5");
+        assertUsage(roomTwoMarch, "500", "60", "80", "10");
+    }
+
+    @Test
+    void removalRecalculatesNextReadingAgainstTheOneBefore() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", null), null);
+        UtilityReading deletedFebruary = reading(20L, ROOM_ID, FEB_1, "150", "30", null);
+        UtilityReading march = withUsage(reading(30L, ROOM_ID, MAR_1, "200", "40", null), deletedFebruary);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), FEB_1, FEB_1))
+                .thenReturn(List.of(january, march));
+
+        List<Long> changed = calculator.recalculateAfterRemoval(ROOM_ID, FEB_1);
+
+        assertThat(changed).containsExactly(30L);
+        assertUsage(march, "100", "100", "20", "20");
+    }
+
+    @Test
+    void removalOfLatestReadingChangesNothing() {
+        UtilityReading january = withUsage(reading(10L, ROOM_ID, JAN_1, "100", "20", null), null);
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), MAR_1, MAR_1)).thenReturn(List.of(january));
+
+        assertThat(calculator.recalculateAfterRemoval(ROOM_ID, MAR_1)).isEmpty();
+    }
+
+    @Test
+    void removalOfFirstReadingMakesNextReadingStartFromZero() {
+        UtilityReading february = withUsage(reading(20L, ROOM_ID, FEB_1, "150", "30", null),
+                reading(10L, ROOM_ID, JAN_1, "100", "20", null));
+        when(utilityReadingRepository.findUsageHistory(Set.of(ROOM_ID), JAN_1, JAN_1)).thenReturn(List.of(february));
+
+        assertThat(calculator.recalculateAfterRemoval(ROOM_ID, JAN_1)).containsExactly(20L);
+        assertUsage(february, "0", "150", "0", "30");
+    }
+
+    private static UtilityReading reading(Long id, Long roomId, LocalDate date,
+                                          String electricity, String water, String hotWater) {
+        UtilityReading reading = new UtilityReading();
+        reading.setId(id);
+        reading.setRoomId(roomId);
+        reading.setReadingDate(date);
+        reading.setElectricityReading(new BigDecimal(electricity));
+        reading.setWaterReading(new BigDecimal(water));
+        reading.setHotWaterReading(hotWater != null ? new BigDecimal(hotWater) : null);
+        return reading;
+    }
+
+    /**
+     * 按数据库中已保存的状态设置上次读数和用量
+     */
+    private static UtilityReading withUsage(UtilityReading reading, UtilityReading previous) {
+        BigDecimal electricityPrevious = previous != null ? previous.getElectricityReading() : BigDecimal.ZERO;
+        BigDecimal waterPrevious = previous != null ? previous.getWaterReading() : BigDecimal.ZERO;
+        BigDecimal hotWaterPrevious = previous != null && previous.getHotWaterReading() != null
+                ? previous.getHotWaterReading() : BigDecimal.ZERO;
+        reading.setElectricityPreviousReading(electricityPrevious);
+        reading.setElectricityUsage(reading.getElectricityReading().subtract(electricityPrevious));
+        reading.setWaterPreviousReading(waterPrevious);
+        reading.setWaterUsage(reading.getWaterReading().subtract(waterPrevious));
+        reading.setHotWaterPreviousReading(hotWaterPrevious);
+        reading.setHotWaterUsage(reading.getHotWaterReading() != null
+                ? reading.getHotWaterReading().subtract(hotWaterPrevious) : null);
+        return reading;
+    }
+
+    private static void assertUsage(UtilityReading reading, String electricityPrevious, String electricityUsage,
+                                    String waterPrevious, String waterUsage) {
+        assertThat(reading.getElectricityPreviousReading()).isEqualByComparingTo(electricityPrevious);
+        assertThat(reading.getElectricityUsage()).isEqualByComparingTo(electricityUsage);
+        assertThat(reading.getWaterPreviousReading()).isEqualByComparingTo(waterPrevious);
+        assertThat(reading.getWaterUsage()).isEqualByComparingTo(waterUsage);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CsvUtils 单元测试
+ */
+class CsvUtilsTest {
+
+    @Test
+    void plainTextIsWrittenAsIs() {
+        assertThat(CsvUtils.escape("A栋101")).isEqualTo("A栋101");
+        assertThat(CsvUtils.escape(null)).isEmpty();
+    }
+
+    @Test
+    void quotesFieldsWithSeparatorsAndDoublesQuotes() {
+        assertThat(CsvUtils.escape("a,b")).isEqualTo("\"a,b\"");
+        assertThat(CsvUtils.escape("说\"明\"")).isEqualTo("\"说\"\"明\"\"\"");
+        assertThat(CsvUtils.escape("第一行\n第二行")).isEqualTo("\"第一行\n第二行\"");
+    }
+
+    @Test
+    void prefixesFormulaStartingText() {
+        assertThat(CsvUtils.escape("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(CsvUtils.escape("+1")).isEqualTo("'+1");
+        assertThat(CsvUtils.escape("-1")).isEqualTo("'-1");
+        assertThat(CsvUtils.escape("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(CsvUtils.escape("\t=1")).isEqualTo("'\t=1");
+        assertThat(CsvUtils.escape("\r=1")).isEqualTo("\"'\r=1\"");
+    }
+
+    @Test
+    void numbersAndTimestampsAreNotPrefixed() {
+        assertThat(CsvUtils.escape(new BigDecimal("-12.50"))).isEqualTo("-12.50");
+        assertThat(CsvUtils.escape(-3L)).isEqualTo("-3");
+        assertThat(CsvUtils.escape(LocalDateTime.of(2024, 3, 1, 8, 30))).isEqualTo("2024-03-01 08:30:00");
+    }
+
+    @Test
+    void writeRowJoinsFieldsWithCrLf() throws Exception {
+        StringWriter writer = new StringWriter();
+        CsvUtils.writeRow(writer, 1L, "=1+1", null, "x,y");
+
+        assertThat(writer.toString()).isEqualTo("1,'=1+1,,\"x,y\"\r\n");
+    }
+
+    @Test
+    void bomIsTheByteOrderMarkCharacter() {
+        assertThat(CsvUtils.UTF8_BOM).hasSize(1);
+        assertThat((int) CsvUtils.UTF8_BOM.charAt(0)).isEqualTo(0xFEFF);
+    }
+}
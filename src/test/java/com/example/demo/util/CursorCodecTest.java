@@ -0,0 +1,70 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CursorCodec 单元测试
+ */
+class CursorCodecTest {
+
+    @Test
+    void encodeThenDecodeReturnsKeysInOrder() {
+        String cursor = CursorCodec.encode("2024-03", 42L);
+
+        assertThat(CursorCodec.decode(cursor, 2)).containsExactly("2024-03", "42");
+    }
+
+    @Test
+    void encodesDateAndTimeKeysWithToString() {
+        String cursor = CursorCodec.encode(LocalDate.of(2024, 3, 1), LocalTime.of(8, 30), 7L);
+
+        assertThat(CursorCodec.decode(cursor, 3)).containsExactly("2024-03-01", "08:30", "7");
+    }
+
+    @Test
+    void cursorIsUrlSafeWithoutPadding() {
+        String cursor = CursorCodec.encode("账单月份?>", 1L);
+
+        assertThat(cursor).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void keepsEmptyKeys() {
+        String cursor = CursorCodec.encode("", 5L);
+
+        assertThat(CursorCodec.decode(cursor, 2)).containsExactly("", "5");
+    }
+
+    @Test
+    void rejectsWrongNumberOfParts() {
+        String cursor = CursorCodec.encode("2024-03", 42L);
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, 3))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("无效的分页游标");
+    }
+
+    @Test
+    void rejectsMalformedBase64() {
+        assertThatThrownBy(() -> CursorCodec.decode("not base64!", 2))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("无效的分页游标");
+    }
+
+    @Test
+    void rejectsCursorWithTooManySeparators() {
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-03|42|extra".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CursorCodec.decode(cursor, 2))
+                .hasMessage("无效的分页游标");
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * NGramIndex 单元测试
+ */
+class NGramIndexTest {
+
+    @Test
+    void keywordShorterThanGramScansAllDocuments() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "阳光花园");
+        index.put(2L, "明月小区");
+        index.put(3L, "花");
+
+        assertThat(index.search("花", 10)).containsExactly(3L, 1L);
+        assertThat(index.search("园", 10)).containsExactly(1L);
+        assertThat(index.search("湖", 10)).isEmpty();
+    }
+
+    @Test
+    void fieldShorterThanGramIsFoundByShortKeywordOnly() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "a");
+
+        assertThat(index.gramCount()).isZero();
+        assertThat(index.search("a", 10)).containsExactly(1L);
+        assertThat(index.search("ab", 10)).isEmpty();
+    }
+
+    @Test
+    void candidatesMustContainKeywordAsSubstring() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        // 包含 ab、bc 两个片段，但不包含 abc
+        index.put(1L, "abxbc");
+        index.put(2L, "xabcx");
+
+        assertThat(index.search("abc", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void ranksExactThenPrefixThenContains() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "东区阳光");
+        index.put(2L, "阳光花园");
+        index.put(3L, "阳光");
+
+        assertThat(index.search("阳光", 10)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void shorterFieldRanksFirstWithinSameMatchType() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "阳光花园小区");
+        index.put(2L, "阳光花园");
+
+        assertThat(index.search("阳光", 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void fieldWeightDecidesBetweenSameMatches() {
+        NGramIndex index = new NGramIndex(2, 2.0, 1.0);
+        index.put(1L, "其他楼宇", "张三");
+        index.put(2L, "张三公寓", "李四");
+
+        // 文档1在低权重字段完全匹配：1.0 × (4 + 1) = 5；文档2在高权重字段前缀匹配：2.0 × (2 + 0.5) = 5
+        // 得分相同按ID升序
+        assertThat(index.search("张三", 10)).containsExactly(1L, 2L);
+
+        index.put(3L, "张三", "王五");
+        assertThat(index.search("张三", 10)).first().isEqualTo(3L);
+    }
+
+    @Test
+    void searchIsCaseInsensitiveAndTrimmed() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "  Alice@Example.com ");
+
+        assertThat(index.search("ALICE", 10)).containsExactly(1L);
+        assertThat(index.search(" example ", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void limitsResults() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "房间" + id);
+        }
+
+        assertThat(index.search("房间", 3)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void replacingDocumentRemovesItsOldGrams() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "alpha");
+        index.put(1L, "beta");
+
+        assertThat(index.search("alpha", 10)).isEmpty();
+        assertThat(index.search("beta", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.gramCount()).isEqualTo(3); // be, et, ta
+    }
+
+    @Test
+    void removeKeepsGramsStillUsedByOtherDocuments() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "abc");
+        index.put(2L, "bcd");
+
+        index.remove(1L);
+        assertThat(index.search("bc", 10)).containsExactly(2L);
+        assertThat(index.gramCount()).isEqualTo(2); // bc, cd
+
+        index.remove(2L);
+        assertThat(index.size()).isZero();
+        assertThat(index.gramCount()).isZero();
+
+        index.remove(3L);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void nullFieldsAreSkipped() {
+        NGramIndex index = new NGramIndex(2, 1.0, 1.0);
+        index.put(1L, "阳光", null);
+
+        assertThat(index.search("阳光", 10)).containsExactly(1L);
+        assertThat(index.gramCount()).isEqualTo(1);
+    }
+
+    @Test
+    void replaceAllSwapsWholeIndex() {
+        NGramIndex index = new NGramIndex(2, 1.0);
+        index.put(1L, "旧楼");
+
+        index.replaceAll(Map.of(2L, new String[]{"新楼"}, 3L, new String[]{"新区"}));
+
+        assertThat(index.search("旧楼", 10)).isEmpty();
+        assertThat(index.search("新", 10)).containsExactly(2L, 3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWrongNumberOfFields() {
+        NGramIndex index = new NGramIndex(2, 1.0, 1.0);
+
+        assertThatThrownBy(() -> index.put(1L, "only one"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 前缀联想查询延迟基准测试
+ *
+ * 数据规模：2000 栋楼宇、每栋 100 个房间，用户拥有其中 200 栋，每次取前 10 条。
+ * SampleTime 模式输出 p50/p99 分位，联想接口的目标是 p99 < 5 ms。
+ * broadPrefix 为单字符前缀（每个分区都命中、归并路径最长），narrowPrefix 为三字符前缀，
+ * missPrefix 不命中任何条目，只有二分定位的开销。
+ *
+ * 运行方式：
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.util.PrefixSuggestIndexBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixSuggestIndexBenchmark {
+
+    private static final int BUILDINGS = 2000;
+    private static final int ROOMS_PER_BUILDING = 100;
+    private static final int OWNED_BUILDINGS = 200;
+    private static final int LIMIT = 10;
+
+    private PrefixSuggestIndex index;
+    private List<Long> ownedBuildings;
+
+    @Setup
+    public void setUp() {
+        List<PrefixSuggestIndex.Match> rooms = new ArrayList<>(BUILDINGS * ROOMS_PER_BUILDING);
+        long roomId = 1;
+        for (long buildingId = 1; buildingId <= BUILDINGS; buildingId++) {
+            for (int floor = 1; floor <= 10; floor++) {
+                for (int room = 1; room <= ROOMS_PER_BUILDING / 10; room++) {
+                    rooms.add(new PrefixSuggestIndex.Match(buildingId, roomId++, String.format("%d%02d", floor, room)));
+                }
+            }
+        }
+        index = new PrefixSuggestIndex();
+        index.replaceAll(rooms);
+
+        Random random = new Random(42);
+        ownedBuildings = new ArrayList<>(OWNED_BUILDINGS);
+        while (ownedBuildings.size() < OWNED_BUILDINGS) {
+            long buildingId = 1 + random.nextInt(BUILDINGS);
+            if (!ownedBuildings.contains(buildingId)) {
+                ownedBuildings.add(buildingId);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PrefixSuggestIndex.Match> broadPrefix() {
+        return index.suggest("1", ownedBuildings, LIMIT);
+    }
+
+    @Benchmark
+    public List<PrefixSuggestIndex.Match> narrowPrefix() {
+        return index.suggest("305", ownedBuildings, LIMIT);
+    }
+
+    @Benchmark
+    public List<PrefixSuggestIndex.Match> missPrefix() {
+        return index.suggest("A", ownedBuildings, LIMIT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PrefixSuggestIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PrefixSuggestIndex 单元测试
+ */
+class PrefixSuggestIndexTest {
+
+    @Test
+    void prefixMatchesContiguousRangeOnly() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "A100");
+        index.put(1L, 2L, "A101");
+        index.put(1L, 3L, "A1");
+        index.put(1L, 4L, "A2");
+        index.put(1L, 5L, "B100");
+        index.put(1L, 6L, "0A1");
+
+        assertThat(ids(index.suggest("a1", List.of(1L), 10))).containsExactly(3L, 1L, 2L);
+        assertThat(ids(index.suggest("A10", List.of(1L), 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.suggest("A1001", List.of(1L), 10))).isEmpty();
+        assertThat(ids(index.suggest("B", List.of(1L), 10))).containsExactly(5L);
+    }
+
+    @Test
+    void prefixAtArrayBoundaries() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "aa");
+        index.put(1L, 2L, "mm");
+        index.put(1L, 3L, "zz");
+
+        // 起点在第一个元素、最后一个元素和数组末尾之后
+        assertThat(ids(index.suggest("a", List.of(1L), 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("z", List.of(1L), 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("zzz", List.of(1L), 10))).isEmpty();
+        assertThat(ids(index.suggest("0", List.of(1L), 10))).isEmpty();
+    }
+
+    @Test
+    void emptyPrefixReturnsEverythingInOrder() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "b");
+        index.put(1L, 2L, "a");
+
+        assertThat(ids(index.suggest(" ", List.of(1L), 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.suggest(null, List.of(1L), 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void sameTextIsOrderedById() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 9L, "101");
+        index.put(2L, 3L, "101");
+        index.put(1L, 5L, "101");
+
+        assertThat(ids(index.suggest("10", List.of(1L, 2L), 10))).containsExactly(3L, 5L, 9L);
+    }
+
+    @Test
+    void mergesPartitionsAndStopsAtLimit() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "101");
+        index.put(1L, 2L, "103");
+        index.put(2L, 3L, "102");
+        index.put(2L, 4L, "104");
+        index.put(3L, 5L, "100");
+
+        assertThat(ids(index.suggest("10", List.of(1L, 2L), 10))).containsExactly(1L, 3L, 2L, 4L);
+        assertThat(ids(index.suggest("10", List.of(1L, 2L), 3))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.suggest("10", List.of(), 10))).isEmpty();
+        assertThat(ids(index.suggest("10", List.of(99L), 10))).isEmpty();
+    }
+
+    @Test
+    void caseInsensitiveButReturnsOriginalText() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "Sunny Garden");
+
+        List<PrefixSuggestIndex.Match> result = index.suggest("  sUNNY", List.of(1L), 10);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getText()).isEqualTo("Sunny Garden");
+        assertThat(result.get(0).getPartition()).isEqualTo(1L);
+    }
+
+    @Test
+    void putReplacesTextInSamePartition() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "旧名称");
+        index.put(1L, 1L, "新名称");
+
+        assertThat(ids(index.suggest("旧", List.of(1L), 10))).isEmpty();
+        assertThat(ids(index.suggest("新", List.of(1L), 10))).containsExactly(1L);
+        assertThat(index.textOf(1L)).isEqualTo("新名称");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void movingEntryRemovesItFromOldPartition() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "101");
+        index.put(1L, 2L, "102");
+
+        index.put(2L, 1L, "101");
+
+        assertThat(ids(index.suggest("10", List.of(1L), 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("10", List.of(2L), 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+
+        // 原分区最后一个条目移走后分区被删除，再移回来也不会出现重复
+        index.put(2L, 2L, "102");
+        index.put(1L, 1L, "101");
+        assertThat(ids(index.suggest("10", List.of(1L), 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("10", List.of(1L, 2L), 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void blankTextRemovesEntry() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "101");
+
+        index.put(2L, 1L, " ");
+
+        assertThat(ids(index.suggest("", List.of(1L, 2L), 10))).isEmpty();
+        assertThat(index.textOf(1L)).isNull();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void removeDeletesSingleEntry() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "101");
+        index.put(1L, 2L, "102");
+
+        index.remove(1L);
+        index.remove(99L);
+
+        assertThat(ids(index.suggest("10", List.of(1L), 10))).containsExactly(2L);
+        assertThat(index.textOf(1L)).isNull();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removePartitionDropsAllItsEntries() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(1L, 1L, "101");
+        index.put(1L, 2L, "102");
+        index.put(2L, 3L, "103");
+
+        index.removePartition(1L);
+        index.removePartition(99L);
+
+        assertThat(ids(index.suggest("10", List.of(1L, 2L), 10))).containsExactly(3L);
+        assertThat(index.textOf(1L)).isNull();
+        assertThat(index.size()).isEqualTo(1);
+
+        // 已删除分区的条目ID可以重新加入其他分区
+        index.put(2L, 1L, "101");
+        assertThat(ids(index.suggest("10", List.of(2L), 10))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void replaceAllSkipsBlankTextAndResetsIndex() {
+        PrefixSuggestIndex index = new PrefixSuggestIndex();
+        index.put(9L, 9L, "旧条目");
+
+        index.replaceAll(List.of(
+                new PrefixSuggestIndex.Match(1L, 2L, "102"),
+                new PrefixSuggestIndex.Match(1L, 1L, "101"),
+                new PrefixSuggestIndex.Match(2L, 3L, null)));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.textOf(9L)).isNull();
+        assertThat(index.textOf(3L)).isNull();
+        assertThat(ids(index.suggest("10", List.of(1L, 2L, 9L), 10))).containsExactly(1L, 2L);
+    }
+
+    private static List<Long> ids(List<PrefixSuggestIndex.Match> matches) {
+        return matches.stream().map(PrefixSuggestIndex.Match::getId).toList();
+    }
+}